@@ -0,0 +1,71 @@
+package com.example.demo.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process unread counters for single-node deployments without Redis.
+ */
+@Component
+@ConditionalOnProperty(name = "skillhive.cache.redis.enabled", havingValue = "false")
+public class LocalUnreadCounter implements UnreadCounter {
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+
+    public LocalUnreadCounter(@Value("${skillhive.cache.local-size:10000}") int maxSize,
+                              @Value("${skillhive.notifications.unread-ttl-ms:3600000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public long get(String userId, LongSupplier seed) {
+        long now = System.currentTimeMillis();
+        Counter counter = counters.compute(userId, (id, current) ->
+                current == null || current.expiresAt <= now
+                        ? new Counter(seed.getAsLong(), now + ttlMillis)
+                        : current);
+        if (counters.size() > maxSize) {
+            evict(now);
+        }
+        return counter.count.get();
+    }
+
+    @Override
+    public Long add(String userId, long delta) {
+        Counter counter = counters.get(userId);
+        if (counter == null || counter.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return counter.count.updateAndGet(count -> Math.max(0, count + delta));
+    }
+
+    @Override
+    public void reset(String userId) {
+        counters.put(userId, new Counter(0, System.currentTimeMillis() + ttlMillis));
+    }
+
+    // Dropped counters are simply seeded again on their next read
+    private void evict(long now) {
+        counters.values().removeIf(counter -> counter.expiresAt <= now);
+        Iterator<String> it = counters.keySet().iterator();
+        while (counters.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Counter(AtomicLong count, long expiresAt) {
+        Counter(long count, long expiresAt) {
+            this(new AtomicLong(count), expiresAt);
+        }
+    }
+}
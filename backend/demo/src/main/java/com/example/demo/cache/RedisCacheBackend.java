@@ -0,0 +1,105 @@
+package com.example.demo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thin wrapper around Redis for the second cache tier and the shared counters. Redis is an optimization here, never a
+ * dependency: after a failure it is skipped for a while and callers fall back to the database.
+ */
+@Slf4j
+public class RedisCacheBackend {
+
+    private final StringRedisTemplate redisTemplate;
+    private final long retryAfterMillis;
+    private final AtomicLong unavailableUntil = new AtomicLong();
+
+    public RedisCacheBackend(StringRedisTemplate redisTemplate, long retryAfterMillis) {
+        this.redisTemplate = redisTemplate;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public boolean isAvailable() {
+        return redisTemplate != null && System.currentTimeMillis() >= unavailableUntil.get();
+    }
+
+    public String get(String key) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    public void set(String key, String value, Duration ttl) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    public void setIfAbsent(String key, String value, Duration ttl) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, value, ttl);
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    public <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try {
+            return redisTemplate.execute(script, keys, (Object[]) args);
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    public void delete(String key) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(key);
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    public void publish(String channel, String message) {
+        if (!isAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    private void markUnavailable(RuntimeException e) {
+        long previous = unavailableUntil.getAndSet(System.currentTimeMillis() + retryAfterMillis);
+        if (previous < System.currentTimeMillis()) {
+            log.warn("Redis cache unavailable, using local caches only for {} ms: {}", retryAfterMillis, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Unread counters shared by all nodes. While Redis is unavailable every read counts in the
+ * database and updates are dropped; the counters are reseeded once their ttl runs out.
+ */
+@Component
+@ConditionalOnProperty(name = "skillhive.cache.redis.enabled", havingValue = "true", matchIfMissing = true)
+public class RedisUnreadCounter implements UnreadCounter {
+
+    private static final String KEY_PREFIX = "skillhive:unread:";
+
+    // Only known counters are changed, so a missing key is seeded from the database, never from a delta
+    private static final RedisScript<Long> ADD = RedisScript.of("""
+            if redis.call('exists', KEYS[1]) == 0 then return nil end
+            local count = redis.call('incrby', KEYS[1], ARGV[1])
+            if count < 0 then
+                redis.call('set', KEYS[1], 0, 'KEEPTTL')
+                count = 0
+            end
+            return count
+            """, Long.class);
+
+    private final RedisCacheBackend redis;
+    private final Duration ttl;
+
+    public RedisUnreadCounter(StringRedisTemplate redisTemplate,
+                              @Value("${skillhive.cache.redis.retry-after-ms:30000}") long retryAfterMs,
+                              @Value("${skillhive.notifications.unread-ttl-ms:3600000}") long ttlMs) {
+        this.redis = new RedisCacheBackend(redisTemplate, retryAfterMs);
+        this.ttl = Duration.ofMillis(ttlMs);
+    }
+
+    @Override
+    public long get(String userId, LongSupplier seed) {
+        String cached = redis.get(KEY_PREFIX + userId);
+        if (cached != null) {
+            return Long.parseLong(cached);
+        }
+        long count = seed.getAsLong();
+        redis.setIfAbsent(KEY_PREFIX + userId, Long.toString(count), ttl);
+        return count;
+    }
+
+    @Override
+    public Long add(String userId, long delta) {
+        return redis.execute(ADD, List.of(KEY_PREFIX + userId), Long.toString(delta));
+    }
+
+    @Override
+    public void reset(String userId) {
+        redis.set(KEY_PREFIX + userId, "0", ttl);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.cache;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers values for the rest of the current HTTP request, so repeated checks within one
+ * request hit the database once. Outside a request (jobs, WebSocket handlers) every call loads.
+ */
+public final class RequestMemo {
+
+    private static final String ATTRIBUTE = RequestMemo.class.getName();
+
+    private RequestMemo() {
+    }
+
+    public static <V> Optional<V> get(String key, Supplier<Optional<V>> loader) {
+        Map<String, Optional<?>> memo = memo();
+        if (memo == null) {
+            return loader.get();
+        }
+        @SuppressWarnings("unchecked")
+        Optional<V> value = (Optional<V>) memo.get(key);
+        if (value == null) {
+            value = loader.get();
+            memo.put(key, value);
+        }
+        return value;
+    }
+
+    public static void forget(String key) {
+        Map<String, Optional<?>> memo = memo();
+        if (memo != null) {
+            memo.remove(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Optional<?>> memo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, Optional<?>> memo = (Map<String, Optional<?>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            // A request is handled by one thread at a time, so a plain map is enough
+            memo = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
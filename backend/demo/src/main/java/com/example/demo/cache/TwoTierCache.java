@@ -0,0 +1,120 @@
+package com.example.demo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Named cache with an in-process first tier and Redis as the shared second tier.
+ * Both tiers hold the JSON form of the value, so every reader gets its own copy and callers
+ * are free to modify what they get back. Null values are never cached.
+ */
+@Slf4j
+public class TwoTierCache<V> {
+
+    private final String name;
+    private final JavaType type;
+    private final LocalCache<String, String> local;
+    private final Duration remoteTtl;
+    private final RedisCacheBackend redis;
+    private final ObjectMapper objectMapper;
+    private final TwoTierCacheManager manager;
+
+    private final AtomicLong remoteHits = new AtomicLong();
+    private final AtomicLong remoteMisses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    TwoTierCache(String name, JavaType type, LocalCache<String, String> local, Duration remoteTtl,
+                 RedisCacheBackend redis, ObjectMapper objectMapper, TwoTierCacheManager manager) {
+        this.name = name;
+        this.type = type;
+        this.local = local;
+        this.remoteTtl = remoteTtl;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.manager = manager;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(String key, Supplier<V> loader) {
+        String json = local.get(key);
+        if (json == null) {
+            json = redis.get(redisKey(key));
+            if (json != null) {
+                remoteHits.incrementAndGet();
+                local.put(key, json);
+            } else {
+                remoteMisses.incrementAndGet();
+            }
+        }
+        if (json != null) {
+            V value = read(json);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        loads.incrementAndGet();
+        V value = loader.get();
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Drops the key from both tiers here and from the first tier of every other node
+     */
+    public void evict(String key) {
+        evictions.incrementAndGet();
+        redis.delete(redisKey(key));
+        local.invalidate(key);
+        manager.publishEviction(name, key);
+    }
+
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(name, local.size(), local.getHitCount(), local.getMissCount(),
+                remoteHits.get(), remoteMisses.get(), loads.get(), evictions.get());
+    }
+
+    private void put(String key, V value) {
+        try {
+            String json = objectMapper.writeValueAsString(value);
+            local.put(key, json);
+            redis.set(redisKey(key), json, remoteTtl);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} entry {}: {}", name, key, e.getMessage());
+        }
+    }
+
+    private V read(String json) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            // Written by an older version of the type, reload it
+            log.debug("Discarding unreadable {} entry: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private String redisKey(String key) {
+        return TwoTierCacheManager.KEY_PREFIX + name + ":" + key;
+    }
+
+    public record CacheStats(String name, int localSize, long localHits, long localMisses,
+                             long remoteHits, long remoteMisses, long loads, long evictions) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the two-tier caches and keeps the first tiers of all nodes in step: every eviction
+ * is published on a Redis channel and the other nodes drop the key from their local tier.
+ */
+@Component
+public class TwoTierCacheManager implements MessageListener {
+
+    static final String KEY_PREFIX = "skillhive:cache:";
+    public static final String INVALIDATION_CHANNEL = "skillhive:cache:invalidations";
+
+    // Separates node, cache name and key in invalidation messages
+    private static final char SEPARATOR = '\u0000';
+
+    private final Map<String, TwoTierCache<?>> caches = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ObjectMapper objectMapper;
+    private final RedisCacheBackend redis;
+
+    @Value("${skillhive.cache.local-size:10000}")
+    private int defaultLocalSize;
+
+    @Value("${skillhive.cache.local-ttl-ms:30000}")
+    private long defaultLocalTtlMs;
+
+    @Value("${skillhive.cache.remote-ttl-ms:600000}")
+    private long defaultRemoteTtlMs;
+
+    public TwoTierCacheManager(ObjectMapper objectMapper,
+                               ObjectProvider<StringRedisTemplate> redisTemplate,
+                               @Value("${skillhive.cache.redis.enabled:true}") boolean redisEnabled,
+                               @Value("${skillhive.cache.redis.retry-after-ms:30000}") long retryAfterMs) {
+        this.objectMapper = objectMapper;
+        this.redis = new RedisCacheBackend(redisEnabled ? redisTemplate.getIfAvailable() : null, retryAfterMs);
+    }
+
+    public <V> TwoTierCache<V> create(String name, Class<V> type) {
+        return create(name, objectMapper.constructType(type), defaultRemoteTtlMs);
+    }
+
+    public <V> TwoTierCache<V> create(String name, TypeReference<V> type) {
+        return create(name, objectMapper.constructType(type), defaultRemoteTtlMs);
+    }
+
+    /**
+     * Cache whose entries live at most the given time in either tier, for values that change often
+     */
+    public <V> TwoTierCache<V> create(String name, Class<V> type, long ttlMs) {
+        return create(name, objectMapper.constructType(type), ttlMs);
+    }
+
+    public void evict(String name, String key) {
+        TwoTierCache<?> cache = caches.get(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    public List<TwoTierCache.CacheStats> getStats() {
+        return caches.values().stream()
+                .map(TwoTierCache::getStats)
+                .toList();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(SEPARATOR);
+        int second = body.indexOf(SEPARATOR, first + 1);
+        if (first < 0 || second < 0 || body.substring(0, first).equals(nodeId)) {
+            return;
+        }
+        TwoTierCache<?> cache = caches.get(body.substring(first + 1, second));
+        if (cache != null) {
+            cache.evictLocal(body.substring(second + 1));
+        }
+    }
+
+    void publishEviction(String name, String key) {
+        redis.publish(INVALIDATION_CHANNEL, nodeId + SEPARATOR + name + SEPARATOR + key);
+    }
+
+    private <V> TwoTierCache<V> create(String name, JavaType type, long remoteTtlMs) {
+        LocalCache<String, String> local = new LocalCache<>(defaultLocalSize, Math.min(defaultLocalTtlMs, remoteTtlMs));
+        TwoTierCache<V> cache = new TwoTierCache<>(name, type, local, Duration.ofMillis(remoteTtlMs),
+                redis, objectMapper, this);
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Cache already exists: " + name);
+        }
+        return cache;
+    }
+}
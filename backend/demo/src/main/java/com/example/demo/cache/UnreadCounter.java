@@ -0,0 +1,24 @@
+package com.example.demo.cache;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user count of unread notifications. Counters are seeded lazily from the database and
+ * reseeded after a while, so a counter that drifted repairs itself.
+ */
+public interface UnreadCounter {
+
+    /**
+     * Returns the count, seeding it from the given source if it is not known yet
+     */
+    long get(String userId, LongSupplier seed);
+
+    /**
+     * Adds to a known count without going below zero
+     *
+     * @return the new count, or null if the count is not known and nothing was changed
+     */
+    Long add(String userId, long delta);
+
+    void reset(String userId);
+}
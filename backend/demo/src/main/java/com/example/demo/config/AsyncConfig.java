@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Runs the asynchronous event listeners on Boot's applicationTaskExecutor, sized through the
+ * spring.task.execution properties.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import com.example.demo.model.AccountDeletion;
+import com.example.demo.model.ArchivedNotification;
+import com.example.demo.model.Comment;
+import com.example.demo.model.CommunityMembership;
+import com.example.demo.model.Follow;
+import com.example.demo.model.Like;
+import com.example.demo.model.Notification;
+import com.example.demo.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the listed documents. Automatic index creation is off,
+ * so collections whose queries rely on their indexes are registered here. Runs after the
+ * data migrations so unique indexes are built on already converted documents.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexConfig implements ApplicationRunner {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            Follow.class,
+            CommunityMembership.class,
+            Notification.class,
+            ArchivedNotification.class,
+            Comment.class,
+            Like.class,
+            AccountDeletion.class,
+            User.class
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(index -> {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (RuntimeException e) {
+                    log.error("Could not create index {} on {}: {}", index.getIndexKeys(), type.getSimpleName(), e.getMessage());
+                }
+            });
+        }
+    }
+}
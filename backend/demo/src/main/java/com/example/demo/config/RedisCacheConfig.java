@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import com.example.demo.cache.TwoTierCacheManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes this node to the cache invalidations published by the other nodes
+ */
+@Configuration
+@ConditionalOnProperty(name = "skillhive.cache.redis.enabled", havingValue = "true", matchIfMissing = true)
+public class RedisCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL));
+        // Keep retrying quietly while Redis is down; local tiers still expire on their own
+        container.setRecoveryInterval(30_000);
+        return container;
+    }
+}
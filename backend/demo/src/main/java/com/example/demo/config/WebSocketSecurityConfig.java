@@ -1,7 +1,9 @@
 package com.example.demo.config;
 import com.example.demo.security.UserPrincipal;
 import com.example.demo.security.jwt.JwtUtils;
+import com.example.demo.security.services.DisabledAccountRegistry;
 import com.example.demo.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +17,7 @@ import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 import java.security.Principal;
@@ -33,6 +35,9 @@ public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private DisabledAccountRegistry disabledAccounts;
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(new ChannelInterceptor() {
@@ -65,13 +70,16 @@ public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer
                     boolean authenticated = false;
                     
                     // Try to authenticate with access token
-                    if (token != null && jwtUtils.validateJwtToken(token)) {
+                    Claims accessClaims = token != null ? jwtUtils.getValidatedClaims(token) : null;
+                    if (accessClaims != null) {
                         try {
-                            String username = jwtUtils.getUserNameFromJwtToken(token);
+                            String username = accessClaims.getSubject();
                             
                             // Load user details
-                            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                            UserPrincipal userPrincipal = (UserPrincipal) userDetails;
+                            UserPrincipal userPrincipal = userDetailsService.loadUserPrincipal(username);
+                            if (!userPrincipal.isEnabled()) {
+                                throw new AccessDeniedException("Account is disabled");
+                            }
                             
                             // Set the principal
                             accessor.setUser(new Principal() {
@@ -84,6 +92,8 @@ public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer
                             // Log successful authentication
                             logger.debug("WebSocket authenticated with access token for user: {}", userPrincipal.getUsername());
                             authenticated = true;
+                        } catch (AccessDeniedException e) {
+                            throw e;
                         } catch (Exception e) {
                             // Log error but continue
                             logger.error("Error authenticating WebSocket connection with access token: {}", e.getMessage());
@@ -91,10 +101,12 @@ public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer
                     }
                     
                     // If access token failed, try refresh token
-                    if (!authenticated && refreshToken != null && jwtUtils.validateJwtToken(refreshToken)) {
+                    Claims refreshClaims = !authenticated && refreshToken != null
+                            ? jwtUtils.getValidatedClaims(refreshToken) : null;
+                    if (refreshClaims != null) {
                         try {
-                            String username = jwtUtils.getUserNameFromJwtToken(refreshToken);
-                            String userId = jwtUtils.getUserIdFromJwtToken(refreshToken);
+                            String username = refreshClaims.getSubject();
+                            String userId = refreshClaims.get("userId", String.class);
                             
                             // Set principal directly from token claims
                             accessor.setUser(new Principal() {
@@ -131,6 +143,12 @@ public class WebSocketSecurityConfig implements WebSocketMessageBrokerConfigurer
                             logger.warn("WebSocket connection attempted without valid authentication");
                         }
                     }
+
+                    // Covers the refresh token and header paths, which never load the user
+                    Principal user = accessor.getUser();
+                    if (user != null && disabledAccounts.isDisabled(user.getName())) {
+                        throw new AccessDeniedException("Account is disabled");
+                    }
                 }
                 return message;
             }
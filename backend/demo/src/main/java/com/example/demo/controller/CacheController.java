@@ -0,0 +1,24 @@
+package com.example.demo.controller;
+
+import com.example.demo.cache.TwoTierCache;
+import com.example.demo.cache.TwoTierCacheManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final TwoTierCacheManager cacheManager;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<TwoTierCache.CacheStats>> getStats() {
+        return ResponseEntity.ok(cacheManager.getStats());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 
 import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.PaginatedResponse;
 import com.example.demo.service.CommentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,6 +20,8 @@ import javax.validation.Valid;
 @RequiredArgsConstructor
 public class CommentController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CommentService commentService;
 
     @PostMapping
@@ -60,6 +63,15 @@ public class CommentController {
                 .body(comments);
     }
 
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<PaginatedResponse<CommentDTO>> getReplies(
+            @PathVariable String commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(commentService.getReplies(
+                commentId, cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
     @GetMapping("/count/{postId}")
     public ResponseEntity<Long> getCommentCount(@PathVariable String postId) {
         long count = commentService.getCommentCount(postId);
@@ -1,5 +1,7 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.PaginatedResponse;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.model.Community;
 import com.example.demo.security.UserPrincipal;
 import com.example.demo.service.CommunityService;
@@ -21,6 +23,8 @@ import java.util.HashMap;
 @RequestMapping("/api/v1/communities")
 public class CommunityController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CommunityService communityService;
 
     @Autowired
@@ -37,31 +41,38 @@ public class CommunityController {
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String visibility, // 👈 added for "public" filter
             @RequestParam(required = false) String memberId,
-            @RequestParam(required = false) String adminId
+            @RequestParam(required = false) String adminId,
+            Authentication authentication
     ) {
         PageRequest pageable = PageRequest.of(page, size);
 
+        Page<Community> communities;
         if (visibility != null && visibility.equalsIgnoreCase("public")) {
-            return ResponseEntity.ok(communityService.getPublicCommunities(pageable));
+            communities = communityService.getPublicCommunities(pageable);
         } else if (category != null) {
-            return ResponseEntity.ok(communityService.getCommunitiesByCategory(category, pageable));
+            communities = communityService.getCommunitiesByCategory(category, pageable);
         } else if (tag != null) {
-            return ResponseEntity.ok(communityService.getCommunitiesByTag(tag, pageable));
+            communities = communityService.getCommunitiesByTag(tag, pageable);
         } else if (name != null) {
-            return ResponseEntity.ok(communityService.getCommunitiesByNameContaining(name, pageable));
+            communities = communityService.getCommunitiesByNameContaining(name, pageable);
         } else if (memberId != null) {
-            return ResponseEntity.ok(communityService.getCommunitiesByMember(memberId, pageable));
+            communities = communityService.getCommunitiesByMember(memberId, pageable);
         } else if (adminId != null) {
-            return ResponseEntity.ok(communityService.getCommunitiesByAdmin(adminId, pageable));
+            communities = communityService.getCommunitiesByAdmin(adminId, pageable);
         } else {
-            return ResponseEntity.ok(communityService.getAllCommunities(pageable));
+            communities = communityService.getAllCommunities(pageable);
         }
+        communityService.markMembership(communities.getContent(), authenticatedUserId(authentication));
+        return ResponseEntity.ok(communities);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Community> getCommunity(@PathVariable String id) {
+    public ResponseEntity<Community> getCommunity(@PathVariable String id, Authentication authentication) {
         return communityService.getCommunityById(id)
-                .map(ResponseEntity::ok)
+                .map(community -> {
+                    communityService.markMembership(List.of(community), authenticatedUserId(authentication));
+                    return ResponseEntity.ok(community);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }    @PostMapping
     public ResponseEntity<Community> createCommunity(
@@ -72,17 +83,10 @@ public class CommunityController {
         
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         
-        // Set the creator as the current authenticated user
-        if (!community.getAdminIds().contains(userPrincipal.getId())) {
-            community.getAdminIds().add(userPrincipal.getId());
-        }
-        
-        // Add creator to members if not already included
-        if (!community.getMemberIds().contains(userPrincipal.getId())) {
-            community.getMemberIds().add(userPrincipal.getId());
-        }
-        
-        Community created = communityService.createCommunity(community);
+        // The creator becomes the first admin and member
+        Community created = communityService.createCommunity(community, userPrincipal.getId());
+        created.setMember(true);
+        created.setAdmin(true);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
@@ -105,8 +109,12 @@ public class CommunityController {
     }
 
     @GetMapping("/{communityId}/members")
-    public ResponseEntity<List<String>> getCommunityMembers(@PathVariable String communityId) {
-        return ResponseEntity.ok(communityService.getCommunityMembers(communityId));
+    public ResponseEntity<PaginatedResponse<String>> getCommunityMembers(
+            @PathVariable String communityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(communityService.getCommunityMembers(
+                communityId, cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
     }    @PostMapping("/{communityId}/members/me")
     public ResponseEntity<Void> addSelfAsMember(
             @PathVariable String communityId, 
@@ -114,7 +122,7 @@ public class CommunityController {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         return communityService.addMember(communityId, userPrincipal.getId())
                 ? ResponseEntity.status(HttpStatus.CREATED).build()
-                : ResponseEntity.notFound().build();
+                : ResponseEntity.ok().build();
     }
     
     @PostMapping("/{communityId}/members/{userId}")
@@ -133,7 +141,7 @@ public class CommunityController {
         
         return communityService.addMember(communityId, userId)
                 ? ResponseEntity.status(HttpStatus.CREATED).build()
-                : ResponseEntity.notFound().build();
+                : ResponseEntity.ok().build();
     }    @DeleteMapping("/{communityId}/members/me")
     public ResponseEntity<Void> removeSelfFromCommunity(
             @PathVariable String communityId,
@@ -182,13 +190,13 @@ public class CommunityController {
         
         return communityService.addAdmin(communityId, userId)
                 ? ResponseEntity.status(HttpStatus.CREATED).build()
-                : ResponseEntity.notFound().build();
+                : ResponseEntity.ok().build();
     }    @DeleteMapping("/{communityId}/admins/{userId}")
     public ResponseEntity<Void> removeAdmin(
             @PathVariable String communityId, 
             @PathVariable String userId,
             Authentication authentication) {
-        // Only existing admins can remove admins (and cannot remove themselves if they're the last admin)
+        // Only existing admins can remove admins, and the last admin cannot be removed
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         String currentUserId = userPrincipal.getId();
         
@@ -197,16 +205,21 @@ public class CommunityController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
-        // Get all admins to ensure we're not removing the last admin
-        List<String> admins = communityService.getCommunityAdmins(communityId);
-        if (admins.size() <= 1 && admins.contains(userId)) {
+        try {
+            return communityService.removeAdmin(communityId, userId)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (BadRequestException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .header("X-Error-Message", "Cannot remove the last admin of a community")
+                    .header("X-Error-Message", e.getMessage())
                     .build();
         }
-        
-        return communityService.removeAdmin(communityId, userId)
-                ? ResponseEntity.noContent().build()
-                : ResponseEntity.notFound().build();
+    }
+
+    private String authenticatedUserId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getId();
+        }
+        return null;
     }
 }
@@ -24,7 +24,8 @@ public class LikeController {
     public ResponseEntity<LikeDTO> likePost(
             @PathVariable String postId) {
         LikeDTO likeDTO = likeService.likePost(postId);
-        return new ResponseEntity<>(likeDTO, HttpStatus.CREATED);
+        // The like is buffered and stored by the next flush
+        return new ResponseEntity<>(likeDTO, HttpStatus.ACCEPTED);
     }
 
     @DeleteMapping("/{postId}")
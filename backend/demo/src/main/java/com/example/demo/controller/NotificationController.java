@@ -30,6 +30,12 @@ public class NotificationController {
                 .body(notifications);
     }
 
+    @GetMapping("/archive")
+    public ResponseEntity<Page<NotificationDTO>> getArchivedNotifications(
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(notificationService.getArchivedNotifications(pageable));
+    }
+
     @GetMapping("/unread")
     public ResponseEntity<List<NotificationDTO>> getUnreadNotifications() {
         List<NotificationDTO> notifications = notificationService.getUnreadNotifications();
@@ -46,9 +52,9 @@ public class NotificationController {
     }
 
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead() {
-        notificationService.markAllAsRead();
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, Long>> markAllAsRead() {
+        long updated = notificationService.markAllAsRead();
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 
     @GetMapping("/unread/count")
@@ -40,6 +40,16 @@ public class NotificationWebSocketController {
         return null;
     }
 
+    /**
+     * Mark several notifications as read via WebSocket with a single update
+     */
+    @MessageMapping("/notifications/mark-read-bulk")
+    @SendToUser("/queue/notifications/marked")
+    public Map<String, Object> markNotificationsAsRead(@Payload List<String> notificationIds, Principal principal) {
+        long updated = notificationService.markAsReadWS(notificationIds, principal.getName());
+        return Map.of("ids", notificationIds, "updated", updated);
+    }
+
     /**
      * Get notification count via WebSocket
      */
@@ -0,0 +1,41 @@
+package com.example.demo.controller;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.PostStats;
+import com.example.demo.service.PostStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/post-stats")
+@RequiredArgsConstructor
+public class PostStatsController {
+
+    private static final int MAX_POSTS = 100;
+
+    private final PostStatsService postStatsService;
+
+    /**
+     * Like and comment counts of several posts at once, keyed by post id, so a feed page needs
+     * a single request for all of its counters
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, PostStats>> getStats(@RequestParam List<String> postIds) {
+        if (postIds.size() > MAX_POSTS) {
+            throw new BadRequestException("At most " + MAX_POSTS + " posts can be requested at once");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS))
+                .body(postStatsService.getStats(new LinkedHashSet<>(postIds)));
+    }
+}
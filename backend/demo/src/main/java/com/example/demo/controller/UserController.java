@@ -1,12 +1,18 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.AccountDeletion;
 import com.example.demo.model.FriendRequest;
 import com.example.demo.model.User;
 import com.example.demo.dto.MessageResponse;
 import com.example.demo.dto.PaginatedResponse;
+import com.example.demo.dto.RelationshipStatus;
 import com.example.demo.dto.UserDTO;
 import com.example.demo.dto.UserProfileDTO;
 import com.example.demo.dto.SignupRequest;
+import com.example.demo.model.UserRecommendations;
+import com.example.demo.service.AccountDeletionService;
+import com.example.demo.service.RecommendationService;
+import com.example.demo.service.RelationshipService;
 import com.example.demo.service.UserService;
 import com.example.demo.repository.FollowRepository;
 import com.example.demo.repository.FriendshipRepository;
@@ -24,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -32,10 +39,15 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
     private final FollowRepository followRepository;
     private final FriendshipRepository friendshipRepository;
     private final ImageUploadService imageUploadService;
+    private final RelationshipService relationshipService;
+    private final RecommendationService recommendationService;
+    private final AccountDeletionService accountDeletionService;
 
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
@@ -101,29 +113,25 @@ public class UserController {
     @GetMapping("/{userId}/followers")
     public ResponseEntity<PaginatedResponse<UserDTO>> getFollowers(
             @PathVariable String userId,
-            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int limit) {
-        User currentUser = userService.getUserProfile(userId);
-        List<User> followers = userService.getFollowers(userId);
-        long total = followers.size();
-        
-        // Apply pagination
-        int start = (page - 1) * limit;
-        int end = Math.min(start + limit, followers.size());
-        List<UserDTO> followerDTOs = followers.subList(start, end).stream()
-                .map(user -> UserDTO.fromUserWithRelation(user, currentUser, followRepository, friendshipRepository))
-                .collect(Collectors.toList());
+        PaginatedResponse<User> followers = userService.getFollowers(userId, cursor, clampLimit(limit));
+        Map<String, RelationshipStatus> relations = resolveRelations(userId, followers.getContent());
 
-        return ResponseEntity.ok(PaginatedResponse.success(followerDTOs, page, limit, total));
+        return ResponseEntity.ok(followers.map(user ->
+                UserDTO.fromUserWithRelation(user, relations.get(user.getId()))));
     }
 
     @GetMapping("/{userId}/following")
-    public ResponseEntity<List<UserDTO>> getFollowing(@PathVariable String userId) {
-        List<User> following = userService.getFollowing(userId);
-        List<UserDTO> followingDTOs = following.stream()
-                .map(user -> UserDTO.fromUser(user, followRepository, friendshipRepository))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(followingDTOs);
+    public ResponseEntity<PaginatedResponse<UserDTO>> getFollowing(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        PaginatedResponse<User> following = userService.getFollowing(userId, cursor, clampLimit(limit));
+        Map<String, RelationshipStatus> relations = resolveRelations(userId, following.getContent());
+
+        return ResponseEntity.ok(following.map(user ->
+                UserDTO.fromUserWithRelation(user, relations.get(user.getId()))));
     }
 
     @PostMapping("/{senderId}/friend-request/{receiverId}")
@@ -165,27 +173,31 @@ public class UserController {
             @PathVariable String userId,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int limit) {
-        User currentUser = userService.getUserProfile(userId);
         List<User> friends = userService.getFriends(userId);
         long total = friends.size();
         
         // Apply pagination
-        int start = (page - 1) * limit;
+        int start = Math.min((page - 1) * limit, friends.size());
         int end = Math.min(start + limit, friends.size());
-        List<UserDTO> friendDTOs = friends.subList(start, end).stream()
-                .map(user -> UserDTO.fromUserWithRelation(user, currentUser, followRepository, friendshipRepository))
-                .collect(Collectors.toList());
+        List<UserDTO> friendDTOs = toUserDTOs(friends.subList(start, end), userId);
 
         return ResponseEntity.ok(PaginatedResponse.success(friendDTOs, page, limit, total));
     }
 
     @GetMapping("/{userId1}/mutual-friends/{userId2}")
-    public ResponseEntity<List<UserDTO>> getMutualFriends(@PathVariable String userId1, @PathVariable String userId2) {
+    public ResponseEntity<List<UserDTO>> getMutualFriends(
+            @PathVariable String userId1,
+            @PathVariable String userId2,
+            Authentication authentication) {
         List<User> mutualFriends = userService.getMutualFriends(userId1, userId2);
-        List<UserDTO> mutualFriendDTOs = mutualFriends.stream()
-                .map(user -> UserDTO.fromUser(user, followRepository, friendshipRepository))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(mutualFriendDTOs);
+        return ResponseEntity.ok(toUserDTOs(mutualFriends, authenticatedUserId(authentication)));
+    }
+
+    @GetMapping("/{userId}/suggestions")
+    public ResponseEntity<List<UserRecommendations.Suggestion>> getSuggestions(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recommendationService.getSuggestions(userId, clampLimit(limit)));
     }
 
     @GetMapping("/{userId}/friend-requests/sent")
@@ -198,11 +210,16 @@ public class UserController {
         return ResponseEntity.ok(userService.getPendingReceivedFriendRequests(userId));
     }
 
+    // The account is disabled right away and its data is removed in the background
     @DeleteMapping("/{userId}/profile")
-    public ResponseEntity<?> deleteProfile(@PathVariable String userId) {
+    public ResponseEntity<?> deleteProfile(@PathVariable String userId, Authentication authentication) {
+        // Only the owner may delete an account
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal userPrincipal)
+                || !userPrincipal.getId().equals(userId)) {
+            return ResponseEntity.status(403).build();
+        }
         try {
-            userService.deleteProfile(userId);
-            return ResponseEntity.ok(new MessageResponse("Profile deleted successfully"));
+            return ResponseEntity.accepted().body(accountDeletionService.requestDeletion(userId));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -211,6 +228,17 @@ public class UserController {
         }
     }
 
+    @GetMapping("/{userId}/profile/deletions/{deletionId}")
+    public ResponseEntity<AccountDeletion> getProfileDeletion(
+            @PathVariable String userId,
+            @PathVariable String deletionId) {
+        AccountDeletion deletion = accountDeletionService.getDeletion(deletionId);
+        if (!deletion.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Account deletion not found: " + deletionId);
+        }
+        return ResponseEntity.ok(deletion);
+    }
+
     @DeleteMapping("/{senderId}/friend-request/{receiverId}")
     public ResponseEntity<?> cancelFriendRequest(
             @PathVariable String senderId,
@@ -276,12 +304,10 @@ public class UserController {
     @GetMapping("/search")
     public ResponseEntity<List<UserDTO>> searchUsers(
             @RequestParam String q,
-            @RequestParam(required = false, defaultValue = "10") int limit) {
-        List<User> users = userService.searchUsers(q, limit);
-        List<UserDTO> userDTOs = users.stream()
-                .map(user -> UserDTO.fromUser(user, followRepository, friendshipRepository))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDTOs);
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            Authentication authentication) {
+        List<User> users = userService.searchUsers(q, clampLimit(limit));
+        return ResponseEntity.ok(toUserDTOs(users, authenticatedUserId(authentication)));
     }
 
     @PostMapping("/complete-profile")
@@ -300,5 +326,35 @@ public class UserController {
         return ResponseEntity.ok(new ProfileStatusResponse(isComplete));
     }
 
+    /**
+     * Maps users to DTOs with the viewer's relationship flags, resolved for the whole list at once
+     */
+    private List<UserDTO> toUserDTOs(List<User> users, String viewerId) {
+        Map<String, RelationshipStatus> relations = resolveRelations(viewerId, users);
+        return users.stream()
+                .map(user -> UserDTO.fromUserWithRelation(user, relations.get(user.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, RelationshipStatus> resolveRelations(String viewerId, List<User> users) {
+        if (viewerId == null) {
+            return Map.of();
+        }
+        return relationshipService.resolve(viewerId, users.stream()
+                .map(User::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private String authenticatedUserId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getId();
+        }
+        return null;
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
     private record ProfileStatusResponse(boolean isComplete) {}
 }
\ No newline at end of file
@@ -37,6 +37,12 @@ public class CommentDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String parentCommentId;
+    private int depth;
+    // On top-level comments: the first replies of the thread at any depth, in display order
     private List<CommentDTO> replies;
+    // Direct replies
+    private long replyCount;
+    // Passed to the replies endpoint to load the replies after the ones included here
+    private String repliesCursor;
     private boolean deleted;
 }
\ No newline at end of file
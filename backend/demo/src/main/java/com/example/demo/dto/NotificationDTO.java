@@ -1,10 +1,12 @@
 package com.example.demo.dto;
+import com.example.demo.model.Notification;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -20,4 +22,6 @@ public class NotificationDTO {
     private String content;
     private boolean read;
     private LocalDateTime createdAt;
+    private int actorCount;
+    private List<Notification.Actor> sampleActors;
 }
\ No newline at end of file
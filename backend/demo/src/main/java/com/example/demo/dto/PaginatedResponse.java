@@ -2,6 +2,8 @@ package com.example.demo.dto;
 
 import lombok.Data;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Data
 public class PaginatedResponse<T> {
@@ -11,6 +13,7 @@ public class PaginatedResponse<T> {
     private long totalElements;
     private int totalPages;
     private boolean last;
+    private String nextCursor;
 
     public static <T> PaginatedResponse<T> success(List<T> content, int pageNumber, int pageSize, long totalElements) {
         PaginatedResponse<T> response = new PaginatedResponse<>();
@@ -22,4 +25,30 @@ public class PaginatedResponse<T> {
         response.setLast(pageNumber >= (int) Math.ceil((double) totalElements / pageSize) - 1);
         return response;
     }
+
+    /**
+     * Builds a keyset page. The client passes nextCursor back to fetch the following page; it is null on the last page.
+     */
+    public static <T> PaginatedResponse<T> cursor(List<T> content, int pageSize, long totalElements, String nextCursor) {
+        PaginatedResponse<T> response = new PaginatedResponse<>();
+        response.setContent(content);
+        response.setPageSize(pageSize);
+        response.setTotalElements(totalElements);
+        response.setTotalPages((int) Math.ceil((double) totalElements / pageSize));
+        response.setLast(nextCursor == null);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
+    public <R> PaginatedResponse<R> map(Function<? super T, ? extends R> mapper) {
+        PaginatedResponse<R> response = new PaginatedResponse<>();
+        response.setContent(content.stream().map(mapper).collect(Collectors.toList()));
+        response.setPageNumber(pageNumber);
+        response.setPageSize(pageSize);
+        response.setTotalElements(totalElements);
+        response.setTotalPages(totalPages);
+        response.setLast(last);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
 } 
\ No newline at end of file
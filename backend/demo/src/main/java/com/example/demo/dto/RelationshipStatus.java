@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How a viewer relates to another user
+ */
+@Data
+@NoArgsConstructor
+public class RelationshipStatus {
+    private boolean following;
+    private boolean friend;
+    private boolean friendRequestSent;
+    private boolean friendRequestReceived;
+}
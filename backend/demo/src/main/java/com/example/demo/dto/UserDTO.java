@@ -12,6 +12,9 @@ public class UserDTO {
     private String profilePicture;
     private String coverPhoto;
     private boolean following;
+    private boolean friend;
+    private boolean friendRequestSent;
+    private boolean friendRequestReceived;
     private boolean profileComplete;
 
     public static UserDTO fromUser(User user, FollowRepository followRepository, FriendshipRepository friendshipRepository) {
@@ -30,11 +33,16 @@ public class UserDTO {
         return dto;
     }
 
-    public static UserDTO fromUserWithRelation(User user, User currentUser, FollowRepository followRepository, FriendshipRepository friendshipRepository) {
-        if (user == null || currentUser == null) return null;
+    public static UserDTO fromUserWithRelation(User user, RelationshipStatus relation) {
+        if (user == null) return null;
         
-        UserDTO dto = fromUser(user, followRepository, friendshipRepository);
-        dto.setFollowing(followRepository.existsByFollowerAndFollowing(currentUser, user));
+        UserDTO dto = fromUser(user, null, null);
+        if (relation != null) {
+            dto.setFollowing(relation.isFollowing());
+            dto.setFriend(relation.isFriend());
+            dto.setFriendRequestSent(relation.isFriendRequestSent());
+            dto.setFriendRequestReceived(relation.isFriendRequestReceived());
+        }
         return dto;
     }
 } 
\ No newline at end of file
@@ -22,6 +22,9 @@ public class UserProfileDTO {
     private String coverPhoto;
     private boolean following;
     private boolean profileComplete;
+    private long followerCount;
+    private long followingCount;
+    private long friendCount;
     // private Set<String> skills = new HashSet<>();
 
     public static UserProfileDTO fromUser(User user, FollowRepository followRepository, FriendshipRepository friendshipRepository) {
@@ -44,6 +47,9 @@ public class UserProfileDTO {
         dto.setProfileComplete(user.getFirstName() != null && 
                              user.getLastName() != null && 
                              user.getBiography() != null);
+        dto.setFollowerCount(user.getFollowerCount());
+        dto.setFollowingCount(user.getFollowingCount());
+        dto.setFriendCount(user.getFriendCount());
         // dto.setSkills(user.getSkills() != null ? user.getSkills() : new HashSet<>());
         return dto;
     }
@@ -52,7 +58,7 @@ public class UserProfileDTO {
         if (user == null || currentUser == null) return null;
         
         UserProfileDTO dto = fromUser(user, followRepository, friendshipRepository);
-        dto.setFollowing(followRepository.existsByFollowerAndFollowing(currentUser, user));
+        dto.setFollowing(followRepository.existsByFollowerIdAndFollowingId(currentUser.getId(), user.getId()));
         return dto;
     }
 } 
\ No newline at end of file
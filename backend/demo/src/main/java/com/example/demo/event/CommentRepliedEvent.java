@@ -0,0 +1,4 @@
+package com.example.demo.event;
+
+public record CommentRepliedEvent(String parentCommentId, String parentAuthorId, String replyId, String userId, String userName) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.event;
+
+/**
+ * Published once a user has joined a community. The admins are notified from the listener.
+ */
+public record CommunityMemberJoinedEvent(String communityId, String userId, String username) {
+}
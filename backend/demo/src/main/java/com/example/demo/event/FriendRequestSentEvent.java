@@ -0,0 +1,4 @@
+package com.example.demo.event;
+
+public record FriendRequestSentEvent(String requestId, String senderId, String senderName, String receiverId) {
+}
@@ -0,0 +1,112 @@
+package com.example.demo.event;
+
+import com.example.demo.model.CommunityMembership;
+import com.example.demo.model.CommunityRole;
+import com.example.demo.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Turns domain events into notifications. Listeners run after the publishing transaction
+ * commits, on the task executor, so the action that caused the notification never waits for it.
+ * The events are stored in the event publication registry with the publishing transaction and
+ * only marked complete once a listener succeeds; EventPublicationRetryJob resubmits the rest.
+ * Likes, comments, replies and follows are grouped per target so bursts collapse into one notification.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEventListener {
+
+    private final NotificationService notificationService;
+    private final MongoTemplate mongoTemplate;
+
+    @ApplicationModuleListener
+    void on(CommunityMemberJoinedEvent event) {
+        Query query = new Query(where("communityId").is(event.communityId())
+                .and("role").is(CommunityRole.ADMIN)
+                .and("userId").ne(event.userId()));
+        query.fields().include("userId");
+        List<String> adminIds = mongoTemplate.find(query, CommunityMembership.class).stream()
+                .map(CommunityMembership::getUserId)
+                .toList();
+
+        notificationService.createNotifications(
+                adminIds,
+                event.userId(),
+                event.username(),
+                "COMMUNITY_JOIN",
+                event.communityId(),
+                event.username() + " joined your community");
+    }
+
+    @ApplicationModuleListener
+    void on(UserFollowedEvent event) {
+        notificationService.createGroupedNotification(
+                event.followingId(),
+                event.followerId(),
+                event.followerName(),
+                "FOLLOW",
+                null,
+                "started following you");
+    }
+
+    @ApplicationModuleListener
+    void on(FriendRequestSentEvent event) {
+        notificationService.createNotification(
+                event.receiverId(),
+                event.senderId(),
+                event.senderName(),
+                "FRIEND_REQUEST",
+                event.requestId(),
+                event.senderName() + " sent you a friend request");
+    }
+
+    @ApplicationModuleListener
+    void on(PostCommentedEvent event) {
+        if (event.userId().equals(event.postOwnerId())) {
+            return;
+        }
+        notificationService.createGroupedNotification(
+                event.postOwnerId(),
+                event.userId(),
+                event.userName(),
+                "COMMENT",
+                event.postId(),
+                "commented on your post");
+    }
+
+    @ApplicationModuleListener
+    void on(CommentRepliedEvent event) {
+        if (event.userId().equals(event.parentAuthorId())) {
+            return;
+        }
+        notificationService.createGroupedNotification(
+                event.parentAuthorId(),
+                event.userId(),
+                event.userName(),
+                "REPLY",
+                event.parentCommentId(),
+                "replied to your comment");
+    }
+
+    @ApplicationModuleListener
+    void on(PostLikedEvent event) {
+        if (event.userId().equals(event.postOwnerId())) {
+            return;
+        }
+        notificationService.createGroupedNotification(
+                event.postOwnerId(),
+                event.userId(),
+                event.userName(),
+                "LIKE",
+                event.postId(),
+                "liked your post");
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.demo.event;
+
+public record PostCommentedEvent(String postId, String postOwnerId, String commentId, String userId, String userName) {
+}
@@ -0,0 +1,4 @@
+package com.example.demo.event;
+
+public record PostLikedEvent(String postId, String postOwnerId, String userId, String userName) {
+}
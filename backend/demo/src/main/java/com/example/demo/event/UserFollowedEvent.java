@@ -0,0 +1,4 @@
+package com.example.demo.event;
+
+public record UserFollowedEvent(String followerId, String followerName, String followingId) {
+}
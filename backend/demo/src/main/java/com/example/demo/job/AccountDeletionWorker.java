@@ -0,0 +1,336 @@
+package com.example.demo.job;
+
+import com.example.demo.cache.TwoTierCacheManager;
+import com.example.demo.model.AccountDeletion;
+import com.example.demo.model.Community;
+import com.example.demo.model.CommunityRole;
+import com.example.demo.model.DeletionStatus;
+import com.example.demo.model.PostStats;
+import com.example.demo.model.User;
+import com.example.demo.model.UserRecommendations;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.services.UserDetailsServiceImpl;
+import com.example.demo.service.FriendGraphService;
+import com.example.demo.service.LikeService;
+import com.example.demo.service.impl.UserServiceImpl;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Removes an account and its data on the account deletion executor. Every step deletes or
+ * updates server-side in bounded chunks and records its progress, and every step can be
+ * repeated safely, so a deletion interrupted by a restart is simply run again from the top.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountDeletionWorker {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final FriendGraphService friendGraphService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TwoTierCacheManager cacheManager;
+    private final LikeService likeService;
+
+    @Value("${skillhive.account-deletion.chunk-size:500}")
+    private int chunkSize;
+
+    // Few threads on purpose: deletions are rare and should not compete with request traffic
+    @Value("${skillhive.account-deletion.threads:2}")
+    private int threads;
+
+    @Value("${skillhive.account-deletion.queue-capacity:100}")
+    private int queueCapacity;
+
+    // A running deletion that has not reported progress for this long is considered abandoned
+    @Value("${skillhive.account-deletion.stale-after-ms:600000}")
+    private long staleAfterMs;
+
+    // Failed deletions are retried after this delay, doubled on every further failure
+    @Value("${skillhive.account-deletion.retry-base-ms:60000}")
+    private long retryBaseMs;
+
+    @Value("${skillhive.account-deletion.retry-max-ms:21600000}")
+    private long retryMaxMs;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("account-deletion-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public void submit(String deletionId) {
+        try {
+            executor.execute(() -> process(deletionId));
+        } catch (TaskRejectedException e) {
+            log.warn("Account deletion queue is full, {} will be picked up by the next sweep", deletionId);
+        }
+    }
+
+    /**
+     * Picks up deletions that were never started, whose worker died, e.g. on a restart, or
+     * whose failed run is due for a retry
+     */
+    @Scheduled(fixedDelayString = "${skillhive.account-deletion.sweep-interval-ms:300000}",
+            initialDelayString = "${skillhive.account-deletion.sweep-initial-delay-ms:30000}")
+    public void resumeAbandoned() {
+        Query query = new Query(claimable());
+        query.fields().include("_id");
+        mongoTemplate.find(query, AccountDeletion.class)
+                .forEach(deletion -> submit(deletion.getId()));
+    }
+
+    private void process(String deletionId) {
+        // Claim first so a deletion is never processed by two workers at once
+        AccountDeletion deletion = mongoTemplate.findAndModify(
+                new Query(where("_id").is(deletionId)).addCriteria(claimable()),
+                new Update().set("status", DeletionStatus.RUNNING).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                AccountDeletion.class);
+        if (deletion == null) {
+            return;
+        }
+
+        String userId = deletion.getUserId();
+        try {
+            run(deletionId, "friendships", progress -> deleteFriendships(userId, progress));
+            run(deletionId, "follows", progress -> deleteFollows(userId, progress));
+            run(deletionId, "friendRequests", progress -> deleteInChunks("friend_requests", Filters.or(
+                    Filters.eq("sender.$id", new ObjectId(userId)),
+                    Filters.eq("receiver.$id", new ObjectId(userId))), progress));
+            run(deletionId, "notifications", progress -> {
+                Bson filter = Filters.or(Filters.eq("userId", userId), Filters.eq("actorId", userId));
+                deleteInChunks("notifications", filter, progress);
+                deleteInChunks("notifications_archive", filter, progress);
+            });
+            run(deletionId, "likes", progress -> {
+                likeService.discardPendingLikes(userId);
+                deleteLikes(userId, progress);
+            });
+            run(deletionId, "comments", progress -> softDeleteComments(userId, progress));
+            run(deletionId, "chatMessages", progress -> deleteInChunks("chat_messages", Filters.eq("senderId", userId), progress));
+            run(deletionId, "feedPosts", progress -> deleteFeedPosts(userId, progress));
+            run(deletionId, "communities", progress -> leaveCommunities(userId, progress));
+            run(deletionId, "user", progress -> {
+                mongoTemplate.remove(new Query(where("_id").is(userId)), UserRecommendations.class);
+                progress.accept(mongoTemplate.remove(new Query(where("_id").is(userId)), User.class)
+                        .getDeletedCount());
+            });
+
+            mongoTemplate.updateFirst(new Query(where("_id").is(deletionId)),
+                    new Update().set("status", DeletionStatus.COMPLETED)
+                            .unset("active")
+                            .unset("nextAttemptAt")
+                            .unset("currentStep")
+                            .set("updatedAt", LocalDateTime.now()),
+                    AccountDeletion.class);
+            userDetailsService.evictUser(deletion.getUsername());
+            cacheManager.evict(UserServiceImpl.PROFILE_CACHE, userId);
+            log.info("Deleted account {}", userId);
+        } catch (RuntimeException e) {
+            int attempts = deletion.getAttempts() + 1;
+            long delayMs = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 20));
+            log.error("Account deletion {} failed (attempt {}), retrying in {} ms", deletionId, attempts, delayMs, e);
+            mongoTemplate.updateFirst(new Query(where("_id").is(deletionId)),
+                    new Update().set("status", DeletionStatus.FAILED)
+                            .set("error", e.getMessage())
+                            .set("attempts", attempts)
+                            .set("nextAttemptAt", LocalDateTime.now().plusNanos(delayMs * 1_000_000))
+                            .set("updatedAt", LocalDateTime.now()),
+                    AccountDeletion.class);
+        }
+    }
+
+    private Criteria claimable() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+        return new Criteria().orOperator(
+                where("status").is(DeletionStatus.PENDING),
+                where("status").is(DeletionStatus.RUNNING).and("updatedAt").lt(staleBefore),
+                where("status").is(DeletionStatus.FAILED).and("nextAttemptAt").not().gt(LocalDateTime.now()));
+    }
+
+    private void run(String deletionId, String step, Consumer<Consumer<Long>> action) {
+        mongoTemplate.updateFirst(new Query(where("_id").is(deletionId)),
+                new Update().set("currentStep", step).set("updatedAt", LocalDateTime.now()),
+                AccountDeletion.class);
+        action.accept(count -> mongoTemplate.updateFirst(new Query(where("_id").is(deletionId)),
+                new Update().inc("processed." + step, count).set("updatedAt", LocalDateTime.now()),
+                AccountDeletion.class));
+    }
+
+    private void deleteFriendships(String userId, Consumer<Long> progress) {
+        List<String> friendIds = new ArrayList<>(friendGraphService.removeUser(userId));
+        for (int from = 0; from < friendIds.size(); from += chunkSize) {
+            List<String> friends = friendIds.subList(from, Math.min(from + chunkSize, friendIds.size()));
+            userRepository.incrementFriendCounts(friends, -1);
+            evictProfiles(friends);
+        }
+        deleteInChunks("friendships", Filters.or(
+                Filters.eq("user1.$id", new ObjectId(userId)),
+                Filters.eq("user2.$id", new ObjectId(userId))), progress);
+    }
+
+    // Cached profiles of the other users carry the counters just changed
+    private void evictProfiles(List<String> userIds) {
+        userIds.forEach(id -> cacheManager.evict(UserServiceImpl.PROFILE_CACHE, id));
+    }
+
+    /**
+     * Deletes the follow edges of the user a chunk at a time, taking each edge off the counter
+     * of the user on the other side
+     */
+    private void deleteFollows(String userId, Consumer<Long> progress) {
+        MongoCollection<Document> follows = mongoTemplate.getCollection("follows");
+        List<Document> chunk;
+        while (!(chunk = nextChunk(follows, Filters.eq("followingId", userId), "followerId")).isEmpty()) {
+            follows.deleteMany(Filters.in("_id", ids(chunk)));
+            List<String> followers = values(chunk, "followerId");
+            userRepository.incrementFollowingCounts(followers, -1);
+            evictProfiles(followers);
+            progress.accept((long) chunk.size());
+        }
+        while (!(chunk = nextChunk(follows, Filters.eq("followerId", userId), "followingId")).isEmpty()) {
+            follows.deleteMany(Filters.in("_id", ids(chunk)));
+            List<String> followed = values(chunk, "followingId");
+            userRepository.incrementFollowerCounts(followed, -1);
+            evictProfiles(followed);
+            progress.accept((long) chunk.size());
+        }
+    }
+
+    /**
+     * Deletes the likes of the user a chunk at a time, taking each one off the like count of
+     * its post. A user likes a post at most once, so every post in a chunk loses one like.
+     */
+    private void deleteLikes(String userId, Consumer<Long> progress) {
+        MongoCollection<Document> likes = mongoTemplate.getCollection("likes");
+        List<Document> chunk;
+        while (!(chunk = nextChunk(likes, Filters.eq("userId", userId), "postId")).isEmpty()) {
+            likes.deleteMany(Filters.in("_id", ids(chunk)));
+            mongoTemplate.updateMulti(new Query(where("_id").in(values(chunk, "postId"))),
+                    new Update().inc("likeCount", -1), PostStats.class);
+            progress.accept((long) chunk.size());
+        }
+    }
+
+    // Soft delete like CommentService does, so the threads the comments belong to stay intact
+    private void softDeleteComments(String userId, Consumer<Long> progress) {
+        MongoCollection<Document> comments = mongoTemplate.getCollection("comments");
+        Bson filter = Filters.and(Filters.eq("userId", userId), Filters.ne("deleted", true));
+        List<Document> chunk;
+        while (!(chunk = nextChunk(comments, filter, "postId")).isEmpty()) {
+            comments.updateMany(Filters.in("_id", ids(chunk)), Updates.combine(
+                    Updates.set("deleted", true),
+                    Updates.set("content", "This comment has been deleted"),
+                    Updates.set("userDisplayName", "Deleted user")));
+
+            Map<String, Long> perPost = values(chunk, "postId").stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostStats.class);
+            perPost.forEach((postId, count) -> ops.updateOne(new Query(where("_id").is(postId)),
+                    new Update().inc("commentCount", -count)));
+            ops.execute();
+            progress.accept((long) chunk.size());
+        }
+    }
+
+    private void deleteFeedPosts(String userId, Consumer<Long> progress) {
+        deleteInChunks("community_feed_posts", Filters.eq("userId", userId), progress);
+        progress.accept(mongoTemplate.getCollection("community_feed_posts").updateMany(
+                Filters.eq("reactions.userId", userId),
+                Updates.pull("reactions", new Document("userId", userId))).getModifiedCount());
+    }
+
+    /**
+     * Removes the memberships of the user a chunk at a time, taking each one off the counts of
+     * its community
+     */
+    private void leaveCommunities(String userId, Consumer<Long> progress) {
+        MongoCollection<Document> memberships = mongoTemplate.getCollection("community_memberships");
+        List<Document> chunk;
+        while (!(chunk = nextChunk(memberships, Filters.eq("userId", userId), "communityId", "role")).isEmpty()) {
+            memberships.deleteMany(Filters.in("_id", ids(chunk)));
+            List<String> adminOf = chunk.stream()
+                    .filter(doc -> CommunityRole.ADMIN.name().equals(doc.getString("role")))
+                    .map(doc -> doc.getString("communityId"))
+                    .toList();
+            mongoTemplate.updateMulti(new Query(where("_id").in(values(chunk, "communityId"))),
+                    new Update().inc("memberCount", -1), Community.class);
+            if (!adminOf.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(where("_id").in(adminOf)),
+                        new Update().inc("adminCount", -1), Community.class);
+            }
+            values(chunk, "communityId").forEach(communityId -> cacheManager.evict("community", communityId));
+            progress.accept((long) chunk.size());
+        }
+    }
+
+    private void deleteInChunks(String collectionName, Bson filter, Consumer<Long> progress) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        List<Document> chunk;
+        while (!(chunk = nextChunk(collection, filter)).isEmpty()) {
+            progress.accept(collection.deleteMany(Filters.in("_id", ids(chunk))).getDeletedCount());
+        }
+    }
+
+    private List<Document> nextChunk(MongoCollection<Document> collection, Bson filter, String... fields) {
+        List<String> projection = new ArrayList<>(List.of("_id"));
+        projection.addAll(List.of(fields));
+        return collection.find(filter)
+                .projection(Projections.include(projection))
+                .limit(chunkSize)
+                .into(new ArrayList<>());
+    }
+
+    private List<Object> ids(List<Document> docs) {
+        return docs.stream().map(doc -> doc.get("_id")).toList();
+    }
+
+    private List<String> values(List<Document> docs, String field) {
+        return docs.stream().map(doc -> doc.getString(field)).toList();
+    }
+}
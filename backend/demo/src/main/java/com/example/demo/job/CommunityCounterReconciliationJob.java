@@ -0,0 +1,129 @@
+package com.example.demo.job;
+
+import com.example.demo.model.Community;
+import com.example.demo.model.CommunityMembership;
+import com.example.demo.model.CommunityRole;
+import com.example.demo.model.JobState;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Recounts the member and admin counters of every community from its memberships and repairs
+ * the ones that drifted, e.g. when a process stopped between a membership write and its count
+ * update. Runs once on the first start, then nightly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommunityCounterReconciliationJob {
+
+    private static final String JOB_NAME = "community-counters";
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.community-counters.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnFirstStart() {
+        if (enabled && mongoTemplate.findById(JOB_NAME, JobState.class) == null) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${skillhive.community-counters.reconcile.cron:0 0 5 * * *}")
+    public void reconcileNightly() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    public synchronized void reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long checked = 0;
+        long repaired = 0;
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        for (Document community : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Community.class))
+                .find()
+                .projection(Projections.include("memberCount", "adminCount"))
+                .sort(Sorts.ascending("_id"))) {
+            batch.add(community);
+            if (batch.size() == BATCH_SIZE) {
+                repaired += reconcileBatch(batch);
+                checked += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            repaired += reconcileBatch(batch);
+            checked += batch.size();
+        }
+        mongoTemplate.save(new JobState(JOB_NAME, startedAt));
+        log.info("Reconciled member counters of {} communities, repaired {}", checked, repaired);
+    }
+
+    private int reconcileBatch(List<Document> communities) {
+        List<String> ids = communities.stream()
+                .map(community -> community.get("_id").toString())
+                .toList();
+        Map<String, Long> members = countMemberships(where("communityId").in(ids));
+        Map<String, Long> admins = countMemberships(where("communityId").in(ids).and("role").is(CommunityRole.ADMIN));
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Community.class);
+        int pending = 0;
+        for (Document community : communities) {
+            String id = community.get("_id").toString();
+            pending += repair(ops, id, "memberCount", community.get("memberCount"), members.getOrDefault(id, 0L));
+            pending += repair(ops, id, "adminCount", community.get("adminCount"), admins.getOrDefault(id, 0L));
+        }
+        if (pending > 0) {
+            ops.execute();
+        }
+        return pending;
+    }
+
+    private int repair(BulkOperations ops, String communityId, String counter, Object observed, long actual) {
+        if (observed instanceof Number number && number.longValue() == actual) {
+            return 0;
+        }
+        // Only overwrite the value that was read; a join or leave in the meantime makes the
+        // update match nothing and the next run looks at it again
+        ops.updateOne(new Query(where("_id").is(communityId).and(counter).is(observed)),
+                new Update().set(counter, actual));
+        return 1;
+    }
+
+    private Map<String, Long> countMemberships(Criteria criteria) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group("communityId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document doc : mongoTemplate.aggregate(aggregation, CommunityMembership.class, Document.class)) {
+            counts.put(doc.getString("_id"), ((Number) doc.get("count")).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.events.CompletedEventPublications;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Redelivers events whose listener failed or never finished, and purges the publications that
+ * completed. Outstanding events are also resubmitted on startup, see
+ * spring.modulith.events.republish-outstanding-events-on-restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventPublicationRetryJob {
+
+    private final IncompleteEventPublications incompletePublications;
+    private final CompletedEventPublications completedPublications;
+
+    // Publications younger than this may still be in flight on the executor
+    @Value("${skillhive.events.retry-after-ms:60000}")
+    private long retryAfterMs;
+
+    @Value("${skillhive.events.keep-completed-ms:604800000}")
+    private long keepCompletedMs;
+
+    @Scheduled(fixedDelayString = "${skillhive.events.retry-interval-ms:60000}",
+            initialDelayString = "${skillhive.events.retry-interval-ms:60000}")
+    public void resubmitIncomplete() {
+        try {
+            incompletePublications.resubmitIncompletePublicationsOlderThan(Duration.ofMillis(retryAfterMs));
+        } catch (RuntimeException e) {
+            log.warn("Could not resubmit incomplete event publications: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${skillhive.events.purge-cron:0 0 5 * * *}")
+    public void purgeCompleted() {
+        completedPublications.deletePublicationsOlderThan(Duration.ofMillis(keepCompletedMs));
+    }
+}
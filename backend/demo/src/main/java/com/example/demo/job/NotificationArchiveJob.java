@@ -0,0 +1,95 @@
+package com.example.demo.job;
+
+import com.example.demo.model.ArchivedNotification;
+import com.example.demo.model.JobState;
+import com.example.demo.model.Notification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves read notifications older than the retention period from the hot notifications
+ * collection to notifications_archive, a batch at a time. Archived copies are written before
+ * the originals are removed, and keep their id, so an interrupted run is simply repeated.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationArchiveJob {
+
+    private static final String JOB_NAME = "notification-archive";
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.notifications.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${skillhive.notifications.archive.after-days:30}")
+    private int archiveAfterDays;
+
+    @Scheduled(cron = "${skillhive.notifications.archive.cron:0 0 3 * * *}")
+    public void archiveNightly() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    public synchronized void archive() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime cutoff = startedAt.minusDays(archiveAfterDays);
+        long archived = 0;
+        List<Notification> batch;
+        while (!(batch = nextBatch(cutoff)).isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedNotification.class);
+            for (Notification notification : batch) {
+                ops.replaceOne(new Query(where("_id").is(notification.getId())),
+                        toArchived(notification, startedAt),
+                        FindAndReplaceOptions.options().upsert());
+            }
+            ops.execute();
+
+            mongoTemplate.remove(new Query(where("_id").in(batch.stream().map(Notification::getId).toList())),
+                    Notification.class);
+            archived += batch.size();
+        }
+        mongoTemplate.save(new JobState(JOB_NAME, startedAt));
+        if (archived > 0) {
+            log.info("Archived {} read notifications older than {} days", archived, archiveAfterDays);
+        }
+    }
+
+    private List<Notification> nextBatch(LocalDateTime cutoff) {
+        Query query = new Query(where("read").is(true).and("createdAt").lt(cutoff))
+                .with(Sort.by("createdAt"))
+                .limit(BATCH_SIZE);
+        return mongoTemplate.find(query, Notification.class);
+    }
+
+    private ArchivedNotification toArchived(Notification notification, LocalDateTime archivedAt) {
+        return new ArchivedNotification(
+                notification.getId(),
+                notification.getUserId(),
+                notification.getActorId(),
+                notification.getActorName(),
+                notification.getType(),
+                notification.getReferenceId(),
+                notification.getContent(),
+                notification.getAction(),
+                Math.max(notification.getActorCount(), 1),
+                notification.getCreatedAt(),
+                archivedAt);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.job;
+
+import com.example.demo.model.JobState;
+import com.example.demo.model.PostStats;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Recounts the like and comment counters in post_stats from the likes and comments and repairs
+ * the ones that drifted. Runs once on the first start to create the counters of existing posts,
+ * then nightly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostStatsReconciliationJob {
+
+    private static final String JOB_NAME = "post-stats";
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.post-stats.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnFirstStart() {
+        if (enabled && mongoTemplate.findById(JOB_NAME, JobState.class) == null) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${skillhive.post-stats.reconcile.cron:0 45 4 * * *}")
+    public void reconcileNightly() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    public synchronized void reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        createMissing("likes", new Criteria());
+        createMissing("comments", where("deleted").ne(true));
+
+        long checked = 0;
+        long repaired = 0;
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        for (Document stats : mongoTemplate.getCollection(mongoTemplate.getCollectionName(PostStats.class))
+                .find()
+                .projection(Projections.include("likeCount", "commentCount"))
+                .sort(Sorts.ascending("_id"))) {
+            batch.add(stats);
+            if (batch.size() == BATCH_SIZE) {
+                repaired += reconcileBatch(batch);
+                checked += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            repaired += reconcileBatch(batch);
+            checked += batch.size();
+        }
+        mongoTemplate.save(new JobState(JOB_NAME, startedAt));
+        log.info("Reconciled like and comment counters of {} posts, repaired {}", checked, repaired);
+    }
+
+    /**
+     * Makes sure every post with likes or comments has a stats document for the recount to
+     * look at. Existing documents are left alone.
+     */
+    private void createMissing(String collection, Criteria filter) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(filter),
+                Aggregation.group("postId"));
+        List<String> postIds = new ArrayList<>(BATCH_SIZE);
+        try (var results = mongoTemplate.aggregateStream(aggregation, collection, Document.class)) {
+            results.forEach(doc -> {
+                if (doc.get("_id") != null) {
+                    postIds.add(doc.get("_id").toString());
+                }
+                if (postIds.size() == BATCH_SIZE) {
+                    insertMissing(postIds);
+                    postIds.clear();
+                }
+            });
+        }
+        if (!postIds.isEmpty()) {
+            insertMissing(postIds);
+        }
+    }
+
+    private void insertMissing(List<String> postIds) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostStats.class);
+        postIds.forEach(postId -> ops.upsert(new Query(where("_id").is(postId)),
+                new Update().setOnInsert("likeCount", 0L).setOnInsert("commentCount", 0L)));
+        ops.execute();
+    }
+
+    private int reconcileBatch(List<Document> batch) {
+        List<String> postIds = batch.stream()
+                .map(stats -> stats.get("_id").toString())
+                .toList();
+        Map<String, Long> likes = countByPost("likes", where("postId").in(postIds));
+        Map<String, Long> comments = countByPost("comments", where("postId").in(postIds).and("deleted").ne(true));
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostStats.class);
+        int pending = 0;
+        for (Document stats : batch) {
+            String postId = stats.get("_id").toString();
+            pending += repair(ops, postId, "likeCount", stats.get("likeCount"), likes.getOrDefault(postId, 0L));
+            pending += repair(ops, postId, "commentCount", stats.get("commentCount"), comments.getOrDefault(postId, 0L));
+        }
+        if (pending > 0) {
+            ops.execute();
+        }
+        return pending;
+    }
+
+    private int repair(BulkOperations ops, String postId, String counter, Object observed, long actual) {
+        if (observed instanceof Number number && number.longValue() == actual) {
+            return 0;
+        }
+        // Only overwrite the value that was read. If a like or comment changed the counter in
+        // the meantime the update matches nothing and the next run looks at it again.
+        ops.updateOne(new Query(where("_id").is(postId).and(counter).is(observed)),
+                new Update().set(counter, actual));
+        return 1;
+    }
+
+    private Map<String, Long> countByPost(String collection, Criteria filter) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(filter),
+                Aggregation.group("postId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document doc : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+            counts.put(doc.get("_id").toString(), ((Number) doc.get("count")).longValue());
+        }
+        return counts;
+    }
+}
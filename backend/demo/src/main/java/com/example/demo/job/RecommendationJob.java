@@ -0,0 +1,173 @@
+package com.example.demo.job;
+
+import com.example.demo.model.FriendAdjacency;
+import com.example.demo.model.JobState;
+import com.example.demo.model.User;
+import com.example.demo.service.RecommendationService;
+import com.mongodb.client.model.Projections;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keeps the precomputed friend suggestions fresh. A frequent incremental run recomputes the
+ * users whose friends or follows changed since the previous run, together with their friends;
+ * a nightly run rebuilds everyone. Users are processed in partitions on a fork/join pool.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationJob {
+
+    private static final String JOB_NAME = "recommendations";
+
+    // Users read from the database per full-rebuild chunk
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final RecommendationService recommendationService;
+
+    @Value("${skillhive.recommendations.enabled:true}")
+    private boolean enabled;
+
+    @Value("${skillhive.recommendations.parallelism:4}")
+    private int parallelism;
+
+    @Value("${skillhive.recommendations.partition-size:200}")
+    private int partitionSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${skillhive.recommendations.interval-ms:900000}",
+            initialDelayString = "${skillhive.recommendations.initial-delay-ms:60000}")
+    public void refreshChanged() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            JobState state = mongoTemplate.findById(JOB_NAME, JobState.class);
+            if (state == null || state.getLastRunAt() == null) {
+                rebuildAll();
+            } else {
+                List<String> changed = new ArrayList<>(findChangedUsers(state.getLastRunAt()));
+                process(changed);
+                log.info("Recomputed suggestions for {} users", changed.size());
+            }
+            mongoTemplate.save(new JobState(JOB_NAME, startedAt));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${skillhive.recommendations.full-rebuild-cron:0 0 3 * * *}")
+    public void rebuildNightly() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            rebuildAll();
+            mongoTemplate.save(new JobState(JOB_NAME, startedAt));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void rebuildAll() {
+        long total = 0;
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (Document doc : mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .find()
+                .projection(Projections.include("_id"))) {
+            chunk.add(doc.get("_id").toString());
+            if (chunk.size() == CHUNK_SIZE) {
+                process(chunk);
+                total += chunk.size();
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        process(chunk);
+        total += chunk.size();
+        log.info("Rebuilt suggestions for {} users", total);
+    }
+
+    /**
+     * Users whose friend set changed or who followed someone since the given time. Friends of
+     * a changed user are included too, since their friends-of-friends changed with it.
+     */
+    private Set<String> findChangedUsers(LocalDateTime since) {
+        Set<String> changed = new HashSet<>();
+        Query adjacencyQuery = new Query(where("updatedAt").gt(since));
+        adjacencyQuery.fields().include("friendIds");
+        for (FriendAdjacency adjacency : mongoTemplate.find(adjacencyQuery, FriendAdjacency.class)) {
+            changed.add(adjacency.getUserId());
+            changed.addAll(adjacency.getFriendIds());
+        }
+
+        Query followQuery = new Query(where("createdAt").gt(since));
+        followQuery.fields().include("followerId");
+        mongoTemplate.find(followQuery, Document.class, "follows")
+                .forEach(edge -> changed.add(edge.getString("followerId")));
+        return changed;
+    }
+
+    private void process(List<String> userIds) {
+        if (!userIds.isEmpty()) {
+            pool.invoke(new PartitionTask(userIds));
+        }
+    }
+
+    private class PartitionTask extends RecursiveAction {
+        private final List<String> userIds;
+
+        PartitionTask(List<String> userIds) {
+            this.userIds = userIds;
+        }
+
+        @Override
+        protected void compute() {
+            if (userIds.size() <= partitionSize) {
+                try {
+                    recommendationService.recompute(userIds);
+                } catch (RuntimeException e) {
+                    // One bad partition should not abort the rest of the run
+                    log.error("Failed to recompute suggestions for {} users", userIds.size(), e);
+                }
+                return;
+            }
+            int middle = userIds.size() / 2;
+            invokeAll(new PartitionTask(userIds.subList(0, middle)),
+                    new PartitionTask(userIds.subList(middle, userIds.size())));
+        }
+    }
+}
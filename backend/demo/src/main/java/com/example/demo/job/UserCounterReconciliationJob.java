@@ -0,0 +1,152 @@
+package com.example.demo.job;
+
+import com.example.demo.cache.TwoTierCacheManager;
+import com.example.demo.model.JobState;
+import com.example.demo.model.User;
+import com.example.demo.service.impl.UserServiceImpl;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Recounts the follower, following and friend counters of every user from the follow edges
+ * and the friend adjacency, and repairs the ones that drifted. Runs once on the first start
+ * to fill the counters of existing users, then nightly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCounterReconciliationJob {
+
+    private static final String JOB_NAME = "user-counters";
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final TwoTierCacheManager cacheManager;
+
+    @Value("${skillhive.counters.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnFirstStart() {
+        if (enabled && mongoTemplate.findById(JOB_NAME, JobState.class) == null) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${skillhive.counters.reconcile.cron:0 30 4 * * *}")
+    public void reconcileNightly() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    public synchronized void reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long checked = 0;
+        long repaired = 0;
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        for (Document user : mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .find()
+                .projection(Projections.include("followerCount", "followingCount", "friendCount"))
+                .sort(Sorts.ascending("_id"))) {
+            batch.add(user);
+            if (batch.size() == BATCH_SIZE) {
+                repaired += reconcileBatch(batch);
+                checked += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            repaired += reconcileBatch(batch);
+            checked += batch.size();
+        }
+        mongoTemplate.save(new JobState(JOB_NAME, startedAt));
+        log.info("Reconciled relationship counters of {} users, repaired {}", checked, repaired);
+    }
+
+    private int reconcileBatch(List<Document> users) {
+        List<String> ids = users.stream()
+                .map(user -> user.get("_id").toString())
+                .toList();
+        Map<String, Long> followers = countEdges("followingId", ids);
+        Map<String, Long> following = countEdges("followerId", ids);
+        Map<String, Long> friends = countFriends(ids);
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int pending = 0;
+        Set<String> repaired = new HashSet<>();
+        for (Document user : users) {
+            String id = user.get("_id").toString();
+            int repairs = repair(ops, id, "followerCount", user.get("followerCount"), followers.getOrDefault(id, 0L))
+                    + repair(ops, id, "followingCount", user.get("followingCount"), following.getOrDefault(id, 0L))
+                    + repair(ops, id, "friendCount", user.get("friendCount"), friends.getOrDefault(id, 0L));
+            if (repairs > 0) {
+                repaired.add(id);
+                pending += repairs;
+            }
+        }
+        if (pending > 0) {
+            ops.execute();
+            // The cached profiles still show the drifted counters
+            repaired.forEach(id -> cacheManager.evict(UserServiceImpl.PROFILE_CACHE, id));
+        }
+        return pending;
+    }
+
+    private int repair(BulkOperations ops, String userId, String counter, Object observed, long actual) {
+        if (observed instanceof Number number && number.longValue() == actual) {
+            return 0;
+        }
+        // Only overwrite the value that was read. If a follow or unfollow changed the counter in
+        // the meantime the update matches nothing and the next run looks at it again.
+        ops.updateOne(new Query(where("_id").is(userId).and(counter).is(observed)),
+                new Update().set(counter, actual));
+        return 1;
+    }
+
+    private Map<String, Long> countEdges(String field, List<String> userIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(where(field).in(userIds)),
+                Aggregation.group(field).count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document doc : mongoTemplate.aggregate(aggregation, "follows", Document.class)) {
+            counts.put(doc.getString("_id"), ((Number) doc.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    private Map<String, Long> countFriends(List<String> userIds) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Document doc : mongoTemplate.getCollection("friend_adjacency")
+                .find(new Document("_id", new Document("$in", userIds)))
+                .projection(Projections.include("friendIds"))) {
+            List<?> friendIds = doc.getList("friendIds", Object.class);
+            counts.put(doc.getString("_id"), (long) Objects.requireNonNullElse(friendIds, List.of()).size());
+        }
+        return counts;
+    }
+}
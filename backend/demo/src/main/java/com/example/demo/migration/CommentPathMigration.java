@@ -0,0 +1,112 @@
+package com.example.demo.migration;
+
+import com.example.demo.model.Comment;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Gives existing comments a rootId, path and depth and replaces the embedded reply id arrays
+ * with replyCount. Comments are converted in id order, so a parent always has its path before
+ * its replies are reached; a run that stopped halfway continues with the comments still
+ * missing a path.
+ */
+@Component
+@Order(5)
+@RequiredArgsConstructor
+@Slf4j
+public class CommentPathMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.migration.comment-paths.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        String collection = mongoTemplate.getCollectionName(Comment.class);
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.getCollection(collection)
+                .find(Filters.exists("path", false))
+                .projection(Projections.include("parentCommentId", "replies"))
+                .sort(Sorts.ascending("_id"))
+                .limit(BATCH_SIZE)
+                .into(new ArrayList<>())).isEmpty()) {
+            migrate(collection, batch);
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Added thread paths to {} comments", migrated);
+        }
+    }
+
+    private void migrate(String collection, List<Document> comments) {
+        // Parents converted earlier in this batch, which the bulk write has not stored yet
+        Map<String, Document> converted = new HashMap<>();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (Document comment : comments) {
+            String id = comment.get("_id").toString();
+            String parentId = comment.getString("parentCommentId");
+            Document parent = null;
+            if (parentId != null) {
+                parent = converted.containsKey(parentId) ? converted.get(parentId) : findParent(collection, parentId);
+            }
+
+            Document thread = new Document();
+            if (parent == null || parent.getString("path") == null) {
+                if (parentId != null) {
+                    log.warn("Parent {} of comment {} is missing, storing it as the start of its own thread", parentId, id);
+                }
+                thread.append("rootId", null).append("path", id).append("depth", 0);
+            } else {
+                String rootId = parent.getString("rootId") != null ? parent.getString("rootId") : parentId;
+                thread.append("rootId", rootId)
+                        .append("path", parent.getString("path") + Comment.PATH_SEPARATOR + id)
+                        .append("depth", parent.getInteger("depth", 0) + 1);
+            }
+            converted.put(id, thread);
+
+            Update update = new Update()
+                    .set("rootId", thread.getString("rootId"))
+                    .set("path", thread.getString("path"))
+                    .set("depth", thread.getInteger("depth"))
+                    .set("replyCount", comment.getList("replies", String.class, List.of()).size())
+                    .unset("replies");
+            ops.updateOne(new Query(where("_id").is(comment.get("_id"))), update);
+        }
+        ops.execute();
+    }
+
+    private Document findParent(String collection, String parentId) {
+        Query query = new Query(where("_id").is(parentId));
+        query.fields().include("rootId", "path", "depth");
+        return mongoTemplate.findOne(query, Document.class, collection);
+    }
+}
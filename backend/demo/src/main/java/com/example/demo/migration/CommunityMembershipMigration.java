@@ -0,0 +1,103 @@
+package com.example.demo.migration;
+
+import com.example.demo.model.Community;
+import com.example.demo.model.CommunityMembership;
+import com.example.demo.model.CommunityRole;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves the member and admin id arrays embedded in communities into community_memberships
+ * and replaces them with counts. Memberships are upserted, so a run that stopped halfway is
+ * picked up again on the next start.
+ */
+@Component
+@Order(4)
+@RequiredArgsConstructor
+@Slf4j
+public class CommunityMembershipMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.migration.community-memberships.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        String collection = mongoTemplate.getCollectionName(Community.class);
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.getCollection(collection)
+                .find(Filters.or(Filters.exists("memberIds"), Filters.exists("adminIds")))
+                .projection(Projections.include("memberIds", "adminIds", "createdAt"))
+                .limit(BATCH_SIZE)
+                .into(new ArrayList<>())).isEmpty()) {
+            for (Document community : batch) {
+                migrate(collection, community);
+            }
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Moved the memberships of {} communities to their own collection", migrated);
+        }
+    }
+
+    private void migrate(String collection, Document community) {
+        String communityId = community.get("_id").toString();
+        Map<String, CommunityRole> roles = new LinkedHashMap<>();
+        community.getList("memberIds", String.class, List.of()).forEach(userId -> roles.put(userId, CommunityRole.MEMBER));
+        community.getList("adminIds", String.class, List.of()).forEach(userId -> roles.put(userId, CommunityRole.ADMIN));
+
+        // Nothing better is known about when existing members joined
+        LocalDateTime joinedAt = community.get("createdAt") instanceof Date createdAt
+                ? LocalDateTime.ofInstant(createdAt.toInstant(), ZoneId.systemDefault())
+                : LocalDateTime.now();
+        List<Map.Entry<String, CommunityRole>> entries = new ArrayList<>(roles.entrySet());
+        for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CommunityMembership.class);
+            for (Map.Entry<String, CommunityRole> entry : entries.subList(from, Math.min(from + BATCH_SIZE, entries.size()))) {
+                ops.upsert(new Query(where("communityId").is(communityId).and("userId").is(entry.getKey())),
+                        new Update().set("role", entry.getValue()).setOnInsert("joinedAt", joinedAt));
+            }
+            ops.execute();
+        }
+
+        long members = mongoTemplate.count(new Query(where("communityId").is(communityId)), CommunityMembership.class);
+        long admins = mongoTemplate.count(new Query(where("communityId").is(communityId).and("role").is(CommunityRole.ADMIN)),
+                CommunityMembership.class);
+        mongoTemplate.updateFirst(new Query(where("_id").is(community.get("_id"))), new Update()
+                .set("memberCount", members)
+                .set("adminCount", admins)
+                .unset("memberIds")
+                .unset("adminIds"), collection);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.migration;
+
+import com.example.demo.repository.DbRefs;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Rewrites legacy follow documents that reference users through DBRefs into id-only edges.
+ * Safe to run repeatedly: only documents that still carry the old fields are touched.
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@Slf4j
+public class FollowEdgeMigration implements ApplicationRunner {
+
+    private static final String COLLECTION = "follows";
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.migration.follows.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        dropLegacyIndex();
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = nextLegacyBatch()).isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+            for (Document doc : batch) {
+                Query byId = new Query(where("_id").is(doc.get("_id")));
+                String followerId = DbRefs.idOf(doc.get("follower"));
+                String followingId = DbRefs.idOf(doc.get("following"));
+                if (followerId == null || followingId == null) {
+                    // Dangling reference, the edge cannot be rebuilt
+                    ops.remove(byId);
+                    continue;
+                }
+                ops.updateOne(byId, new Update()
+                        .set("followerId", followerId)
+                        .set("followingId", followingId)
+                        .unset("follower")
+                        .unset("following"));
+            }
+            ops.execute();
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated {} follow documents to id-only edges", migrated);
+        }
+    }
+
+    // Read through the driver so the DBRefs are not resolved by the mapping layer
+    private List<Document> nextLegacyBatch() {
+        return mongoTemplate.getCollection(COLLECTION)
+                .find(Filters.exists("follower"))
+                .projection(Projections.include("follower", "following"))
+                .limit(BATCH_SIZE)
+                .into(new ArrayList<>());
+    }
+
+    private void dropLegacyIndex() {
+        for (IndexInfo index : mongoTemplate.indexOps(COLLECTION).getIndexInfo()) {
+            if (index.isIndexForFields(List.of("follower", "following"))) {
+                mongoTemplate.indexOps(COLLECTION).dropIndex(index.getName());
+                log.info("Dropped legacy follow index {}", index.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.migration;
+
+import com.example.demo.model.FriendAdjacency;
+import com.example.demo.model.JobState;
+import com.example.demo.repository.DbRefs;
+import com.mongodb.client.model.Projections;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Builds the friend adjacency documents from the existing friendships the first time it runs.
+ * Completion is recorded in job_state, so a run interrupted part way is simply repeated; the
+ * $addToSet upserts and the recount are idempotent.
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@Slf4j
+public class FriendAdjacencyMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String JOB_NAME = "friend-adjacency-migration";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.migration.friend-adjacency.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || mongoTemplate.findById(JOB_NAME, JobState.class) != null) {
+            return;
+        }
+
+        long edges = 0;
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FriendAdjacency.class);
+        int pending = 0;
+        for (Document doc : mongoTemplate.getCollection("friendships")
+                .find()
+                .projection(Projections.include("user1", "user2"))) {
+            String user1Id = DbRefs.idOf(doc.get("user1"));
+            String user2Id = DbRefs.idOf(doc.get("user2"));
+            if (user1Id == null || user2Id == null) {
+                continue;
+            }
+            ops.upsert(new Query(where("_id").is(user1Id)), new Update().addToSet("friendIds", user2Id));
+            ops.upsert(new Query(where("_id").is(user2Id)), new Update().addToSet("friendIds", user1Id));
+            edges++;
+            if (++pending == BATCH_SIZE) {
+                ops.execute();
+                ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FriendAdjacency.class);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            ops.execute();
+        }
+
+        if (edges > 0) {
+            // $addToSet cannot count, so derive the counts from the final sets
+            mongoTemplate.updateMulti(new Query(),
+                    AggregationUpdate.update()
+                            .set("friendCount").toValue(ArrayOperators.Size.lengthOfArray("friendIds")),
+                    FriendAdjacency.class);
+            log.info("Built friend adjacency from {} friendships", edges);
+        }
+        mongoTemplate.save(new JobState(JOB_NAME, LocalDateTime.now()));
+    }
+}
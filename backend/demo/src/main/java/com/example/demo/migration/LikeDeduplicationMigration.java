@@ -0,0 +1,70 @@
+package com.example.demo.migration;
+
+import com.example.demo.model.Like;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Removes duplicate likes of the same post by the same user, keeping the oldest, so the unique
+ * {postId, userId} index can be built. Skipped once that index exists, since it rules out new
+ * duplicates. Like counts are corrected by the next post stats reconciliation.
+ */
+@Component
+@Order(6)
+@RequiredArgsConstructor
+@Slf4j
+public class LikeDeduplicationMigration implements ApplicationRunner {
+
+    private static final String UNIQUE_INDEX = "post_user";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.migration.like-dedup.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || !mongoTemplate.collectionExists(Like.class) || hasUniqueIndex()) {
+            return;
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("postId", "userId").push("_id").as("ids").count().as("count"),
+                Aggregation.match(where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        long removed = 0;
+        for (Document duplicates : mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Like.class), Document.class)) {
+            List<ObjectId> ids = new ArrayList<>(duplicates.getList("ids", ObjectId.class));
+            ids.sort(Comparator.naturalOrder());
+            removed += mongoTemplate.remove(new Query(where("_id").in(ids.subList(1, ids.size()))), Like.class)
+                    .getDeletedCount();
+        }
+
+        if (removed > 0) {
+            log.info("Removed {} duplicate likes", removed);
+        }
+    }
+
+    private boolean hasUniqueIndex() {
+        return mongoTemplate.indexOps(Like.class).getIndexInfo().stream()
+                .anyMatch(index -> UNIQUE_INDEX.equals(index.getName()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.migration;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserSearchKeys;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Fills the search keys of users written before they existed. Only users without keys are
+ * touched, so it is safe to run repeatedly. The search_keys index is declared on User.
+ */
+@Component
+@Order(3)
+@RequiredArgsConstructor
+@Slf4j
+public class UserSearchKeysMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.migration.user-search-keys.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        String collection = mongoTemplate.getCollectionName(User.class);
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.getCollection(collection)
+                .find(Filters.exists("searchKeys", false))
+                .projection(Projections.include("username", "firstName", "lastName"))
+                .limit(BATCH_SIZE)
+                .into(new ArrayList<>())).isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document doc : batch) {
+                List<String> keys = UserSearchKeys.of(
+                        doc.getString("username"), doc.getString("firstName"), doc.getString("lastName"));
+                ops.updateOne(new Query(where("_id").is(doc.get("_id"))), new Update().set("searchKeys", keys));
+            }
+            ops.execute();
+            migrated += batch.size();
+        }
+
+        if (migrated > 0) {
+            log.info("Added search keys to {} users", migrated);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of the background removal of one account and everything it owns
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "account_deletions")
+@CompoundIndexes({
+    // At most one unfinished deletion per user, so concurrent requests cannot start two
+    @CompoundIndex(name = "active_user", def = "{'userId': 1}", unique = true, partialFilter = "{'active': true}"),
+    // Deletions recent enough for tokens of the account to still be valid
+    @CompoundIndex(name = "created", def = "{'createdAt': 1}")
+})
+public class AccountDeletion {
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String username;
+
+    private DeletionStatus status;
+
+    // Set until the deletion completes; FAILED deletions stay active because they are retried
+    private Boolean active;
+
+    // Step currently being processed, e.g. "likes"
+    private String currentStep;
+
+    // Documents removed or updated so far, per step
+    private Map<String, Long> processed = new LinkedHashMap<>();
+
+    private String error;
+
+    // Failed runs so far, and when the next retry is due
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read notification moved out of the hot collection by NotificationArchiveJob. Only what the
+ * history view shows is kept, and archived entries expire after a year.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notifications_archive")
+@CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1}")
+public class ArchivedNotification {
+    // Same id as the original notification, so a repeated archive run cannot duplicate it
+    @Id
+    private String id;
+    private String userId;
+    private String actorId;
+    private String actorName;
+    private String type;
+    private String referenceId;
+    private String content;
+    private String action;
+    private int actorCount;
+    private LocalDateTime createdAt;
+
+    @Indexed(name = "archived_at_ttl", expireAfter = "365d")
+    private LocalDateTime archivedAt;
+}
@@ -3,6 +3,8 @@ package com.example.demo.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.Instant;
@@ -15,14 +17,20 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "comments")
+@CompoundIndexes({
+    // Any subtree of a thread as one range scan over path, in display order
+    @CompoundIndex(name = "root_path", def = "{'rootId': 1, 'path': 1}"),
+    // Top-level comments of a post, paged by _id
+    @CompoundIndex(name = "post_parent_id", def = "{'postId': 1, 'parentCommentId': 1, '_id': 1}"),
+    // Live comment count of a post, for post_stats and its reconciliation
+    @CompoundIndex(name = "post_deleted", def = "{'postId': 1, 'deleted': 1}")
+})
 public class Comment {
     @Id
     private String id;
@@ -33,8 +41,39 @@ public class Comment {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String parentCommentId;
-    private List<String> replies = new ArrayList<>();
+    // Top-level comment of the thread; null on top-level comments
+    private String rootId;
+    // Ids from the top-level comment down to this one, joined by PATH_SEPARATOR. Ids are
+    // ObjectIds of equal length, so sorting by path lists a thread depth-first with
+    // siblings oldest first.
+    private String path;
+    private int depth;
+    // Direct replies
+    private long replyCount;
     private boolean deleted;
+
+    public static final String PATH_SEPARATOR = "/";
+
+    /**
+     * Paths of this comment's descendants sort at or after this bound
+     */
+    public String subtreeStart() {
+        return path + PATH_SEPARATOR;
+    }
+
+    /**
+     * Paths of this comment's descendants sort before this bound; '0' is the character after '/'
+     */
+    public String subtreeEnd() {
+        return path + "0";
+    }
+
+    /**
+     * The rootId shared by this comment's descendants
+     */
+    public String threadRootId() {
+        return rootId != null ? rootId : id;
+    }
 }
 
 
@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -33,11 +34,10 @@ public class Community {
     
     private String icon;
     
-    // Reference to user IDs of community members
-    private Set<String> memberIds = new HashSet<>();
+    // Memberships live in community_memberships; these are kept in step with $inc
+    private long memberCount;
     
-    // Reference to user IDs of community admins
-    private Set<String> adminIds = new HashSet<>();
+    private long adminCount;
     
     private LocalDateTime createdAt = LocalDateTime.now();
     
@@ -47,4 +47,11 @@ public class Community {
     private String category;
     
     private Set<String> tags = new HashSet<>();
+
+    // Relation of the requesting user to the community, filled in per response
+    @Transient
+    private boolean member;
+
+    @Transient
+    private boolean admin;
 }
\ No newline at end of file
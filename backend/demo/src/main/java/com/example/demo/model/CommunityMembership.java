@@ -0,0 +1,44 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's membership of one community. Admins are members with the ADMIN role.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "community_memberships")
+@CompoundIndexes({
+    @CompoundIndex(name = "community_user", def = "{'communityId': 1, 'userId': 1}", unique = true),
+    @CompoundIndex(name = "community_id", def = "{'communityId': 1, '_id': -1}"),
+    @CompoundIndex(name = "community_role", def = "{'communityId': 1, 'role': 1}"),
+    @CompoundIndex(name = "user_id", def = "{'userId': 1, '_id': -1}")
+})
+public class CommunityMembership {
+    @Id
+    private String id;
+
+    private String communityId;
+
+    private String userId;
+
+    private CommunityRole role;
+
+    private LocalDateTime joinedAt;
+
+    public CommunityMembership(String communityId, String userId, CommunityRole role) {
+        this.communityId = communityId;
+        this.userId = userId;
+        this.role = role;
+        this.joinedAt = LocalDateTime.now();
+    }
+}
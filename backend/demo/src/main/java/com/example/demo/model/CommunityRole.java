@@ -0,0 +1,6 @@
+package com.example.demo.model;
+
+public enum CommunityRole {
+    MEMBER,
+    ADMIN
+}
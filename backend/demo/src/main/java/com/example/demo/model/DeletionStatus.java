@@ -0,0 +1,8 @@
+package com.example.demo.model;
+
+public enum DeletionStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
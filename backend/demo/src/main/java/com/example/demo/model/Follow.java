@@ -5,7 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,20 +14,28 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "follows")
-@CompoundIndex(def = "{'follower': 1, 'following': 1}", unique = true)
+@CompoundIndexes({
+    @CompoundIndex(name = "follower_following", def = "{'followerId': 1, 'followingId': 1}", unique = true),
+    @CompoundIndex(name = "following_id", def = "{'followingId': 1, '_id': -1}"),
+    @CompoundIndex(name = "follower_id", def = "{'followerId': 1, '_id': -1}")
+})
 public class Follow {
     @Id
     private String id;
 
-    @DBRef
-    private User follower;
+    // Follow edges only store user ids, users are resolved in batches when needed
+    private String followerId;
 
-    @DBRef
-    private User following;
+    private String followingId;
 
     private LocalDateTime createdAt;
 
+    public Follow(String followerId, String followingId) {
+        this.followerId = followerId;
+        this.followingId = followingId;
+    }
+
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Friend ids of one user, keyed by the user id. Derived from the friendships collection
+ * so that existence checks, counts and listings are single-key lookups.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "friend_adjacency")
+public class FriendAdjacency {
+    @MongoId(FieldType.STRING)
+    private String userId;
+
+    private Set<String> friendIds = new HashSet<>();
+
+    private long friendCount;
+
+    private LocalDateTime updatedAt;
+}
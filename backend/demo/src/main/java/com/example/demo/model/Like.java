@@ -5,6 +5,7 @@ package com.example.demo.model;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.Instant;
@@ -22,6 +23,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "likes")
+@CompoundIndexes({
+    // One like per user and post; also serves the like lookups of the write-behind flush
+    @CompoundIndex(name = "post_user", def = "{'postId': 1, 'userId': 1}", unique = true)
+})
 public class Like {
     @Id
     private String id;
@@ -4,6 +4,8 @@ package com.example.demo.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.Instant;
@@ -15,12 +17,20 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "notifications")
+@CompoundIndexes({
+    // The notification list, unread list and unread count of a user
+    @CompoundIndex(name = "user_read_created", def = "{'userId': 1, 'read': 1, 'createdAt': -1}"),
+    @CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1}"),
+    // Read notifications due for the archive
+    @CompoundIndex(name = "read_created", def = "{'read': 1, 'createdAt': 1}")
+})
 public class Notification {
     @Id
     private String id;
@@ -31,5 +41,26 @@ public class Notification {
     private String referenceId;  // postId, commentId, etc.
     private String content;
     private boolean read;
+    // For grouped notifications, the time of the latest activity
     private LocalDateTime createdAt;
+
+    // Grouped notifications only: userId:type:referenceId:window, unique while set
+    @Indexed(unique = true, sparse = true)
+    private String groupKey;
+    // What the actors did, e.g. "liked your post"
+    private String action;
+    // Every distinct actor of the group; actorCount is its size
+    private List<String> actorIds;
+    @Builder.Default
+    private int actorCount = 1;
+    // The most recent actors, newest last
+    private List<Actor> sampleActors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Actor {
+        private String actorId;
+        private String actorName;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+/**
+ * Like and comment counters of a post, kept up to date with $inc as likes and comments are
+ * added and removed, and recounted nightly by PostStatsReconciliationJob
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "post_stats")
+public class PostStats {
+    @MongoId(FieldType.STRING)
+    private String postId;
+
+    private long likeCount;
+    // Comments and replies that are not deleted
+    private long commentCount;
+
+    public static PostStats empty(String postId) {
+        return new PostStats(postId, 0, 0);
+    }
+}
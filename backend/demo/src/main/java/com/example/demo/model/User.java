@@ -10,12 +10,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
 
 @Document(collection = "users")
+// Only the few disabled users, for DisabledAccountRegistry
+@CompoundIndex(name = "disabled", def = "{'enabled': 1}", partialFilter = "{'enabled': false}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -68,6 +73,18 @@ public class User {
 
     private boolean isProfileComplete = false;
 
+    // Denormalized relationship counts, only ever changed with $inc (see UserRepositoryCustom)
+    private long followerCount;
+
+    private long followingCount;
+
+    private long friendCount;
+
+    // Maintained from the name fields on every write, see UserSearchKeys
+    @JsonIgnore
+    @Indexed(name = "search_keys")
+    private List<String> searchKeys = new ArrayList<>();
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
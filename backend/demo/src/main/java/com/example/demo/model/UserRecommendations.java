@@ -0,0 +1,43 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed "people you may know" list of one user, best suggestion first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_recommendations")
+public class UserRecommendations {
+    @MongoId(FieldType.STRING)
+    private String userId;
+
+    private List<Suggestion> suggestions = new ArrayList<>();
+
+    private LocalDateTime computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String userId;
+        private String username;
+        private String firstName;
+        private String lastName;
+        private String profilePicture;
+        private double score;
+        private int mutualFriends;
+        private int sharedCommunities;
+        private int sharedSkills;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ArchivedNotification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedNotificationRepository extends MongoRepository<ArchivedNotification, String> {
+    Page<ArchivedNotification> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+}
@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.CommunityMembership;
+import com.example.demo.model.CommunityRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommunityMembershipRepository extends MongoRepository<CommunityMembership, String> {
+    long deleteByCommunityId(String communityId);
+
+    List<CommunityMembership> findByCommunityIdAndRole(String communityId, CommunityRole role);
+
+    // Keyset pages of members, newest first, like the follow lists
+    List<CommunityMembership> findByCommunityIdOrderByIdDesc(String communityId, Pageable pageable);
+    List<CommunityMembership> findByCommunityIdAndIdLessThanOrderByIdDesc(String communityId, String cursor, Pageable pageable);
+
+    List<CommunityMembership> findByUserId(String userId);
+    Page<CommunityMembership> findByUserId(String userId, Pageable pageable);
+    List<CommunityMembership> findByUserIdAndRole(String userId, CommunityRole role);
+    Page<CommunityMembership> findByUserIdAndRole(String userId, CommunityRole role, Pageable pageable);
+
+    @Query(value = "{ 'userId': ?0, 'communityId': { $in: ?1 } }", fields = "{ 'communityId': 1, 'role': 1 }")
+    List<CommunityMembership> findByUserIdAndCommunityIdIn(String userId, Collection<String> communityIds);
+}
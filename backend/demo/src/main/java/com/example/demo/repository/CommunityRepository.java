@@ -26,13 +26,5 @@ public interface CommunityRepository extends MongoRepository<Community, String>
     
     Page<Community> findByTagsContaining(String tag, Pageable pageable);
     
-    List<Community> findByMemberIdsContaining(String userId);
-    
-    Page<Community> findByMemberIdsContaining(String userId, Pageable pageable);
-    
-    List<Community> findByAdminIdsContaining(String userId);
-    
-    Page<Community> findByAdminIdsContaining(String userId, Pageable pageable);
-    
     Page<Community> findByNameContaining(String name, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for querying collections that still reference users through DBRefs
+ */
+public final class DbRefs {
+
+    private DbRefs() {
+    }
+
+    /**
+     * Returns the referenced id of a raw DBRef value, or null when the value is not a reference
+     */
+    public static String idOf(Object value) {
+        if (value instanceof DBRef ref) {
+            return ref.getId().toString();
+        }
+        if (value instanceof Document doc && doc.get("$id") != null) {
+            return doc.get("$id").toString();
+        }
+        return null;
+    }
+
+    public static List<ObjectId> objectIds(Collection<String> ids) {
+        return ids.stream()
+                .filter(ObjectId::isValid)
+                .map(ObjectId::new)
+                .collect(Collectors.toList());
+    }
+}
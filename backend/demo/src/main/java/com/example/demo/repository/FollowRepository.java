@@ -1,24 +1,37 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Follow;
-import com.example.demo.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FollowRepository extends MongoRepository<Follow, String> {
-    List<Follow> findByFollower(User follower);
-    List<Follow> findByFollowing(User following);
-    Optional<Follow> findByFollowerAndFollowing(User follower, User following);
-    boolean existsByFollowerAndFollowing(User follower, User following);
-    void deleteByFollowerAndFollowing(User follower, User following);
-    long countByFollower(User follower);
-    long countByFollowing(User following);
-    
-    @Query("{ $or: [ { 'follower': ?0 }, { 'following': ?0 } ] }")
-    List<Follow> findByFollowerOrFollowing(User user);
-} 
\ No newline at end of file
+    Optional<Follow> findByFollowerIdAndFollowingId(String followerId, String followingId);
+    boolean existsByFollowerIdAndFollowingId(String followerId, String followingId);
+    long deleteByFollowerIdAndFollowingId(String followerId, String followingId);
+    long countByFollowerId(String followerId);
+    long countByFollowingId(String followingId);
+    long deleteByFollowerIdOrFollowingId(String followerId, String followingId);
+
+    // Id-only projections, served from the compound indexes
+    @Query(value = "{ 'followingId': ?0 }", fields = "{ 'followerId': 1 }")
+    List<Follow> findFollowerEdges(String userId);
+
+    @Query(value = "{ 'followerId': ?0 }", fields = "{ 'followingId': 1 }")
+    List<Follow> findFollowingEdges(String userId);
+
+    @Query(value = "{ 'followerId': ?0, 'followingId': { $in: ?1 } }", fields = "{ 'followingId': 1 }")
+    List<Follow> findFollowingEdgesAmong(String followerId, Collection<String> followingIds);
+
+    // Keyset pages, newest edge first. The edge id is the cursor: ObjectIds grow with creation time
+    List<Follow> findByFollowingIdOrderByIdDesc(String followingId, Pageable pageable);
+    List<Follow> findByFollowingIdAndIdLessThanOrderByIdDesc(String followingId, String cursor, Pageable pageable);
+    List<Follow> findByFollowerIdOrderByIdDesc(String followerId, Pageable pageable);
+    List<Follow> findByFollowerIdAndIdLessThanOrderByIdDesc(String followerId, String cursor, Pageable pageable);
+}
@@ -17,7 +17,8 @@ import java.util.Optional;
 public interface LikeRepository extends MongoRepository<Like, String> {
     List<Like> findByPostId(String postId);
     Optional<Like> findByPostIdAndUserId(String postId, String userId);
+    boolean existsByPostIdAndUserId(String postId, String userId);
     long countByPostId(String postId);
-    void deleteByPostIdAndUserId(String postId, String userId);
+    long deleteByPostIdAndUserId(String postId, String userId);
 }
 
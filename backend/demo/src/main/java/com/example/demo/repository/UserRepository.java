@@ -1,15 +1,25 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import com.example.demo.model.User;
 
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
-    List<User> findByUsernameContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrderByUsernameAsc(
-        String username, String firstName, String lastName);
+
+    // Projected user summaries for list views, without password or profile details
+    @Query(value = "{ '_id': { $in: ?0 } }",
+           fields = "{ 'username': 1, 'firstName': 1, 'lastName': 1, 'biography': 1, 'profilePicture': 1, 'coverPhoto': 1 }")
+    List<User> findSummariesByIdIn(Collection<String> ids);
+
+    // Only the relationship counters, for list totals
+    @Query(value = "{ '_id': ?0 }",
+           fields = "{ 'followerCount': 1, 'followingCount': 1, 'friendCount': 1 }")
+    Optional<User> findCountersById(String id);
 } 
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partial updates of user documents. Saving a whole loaded user would overwrite the
+ * relationship counters with whatever was read, losing concurrent increments.
+ */
+public interface UserRepositoryCustom {
+    /**
+     * Sets the given fields and returns the updated user, or null if it does not exist
+     */
+    User updateFields(String userId, Map<String, Object> fields);
+
+    /**
+     * Users having exactly the given normalized search key, projected to the list view fields
+     */
+    List<User> findSummariesBySearchKey(String key, int limit);
+
+    /**
+     * Users having a search key that starts with the given normalized prefix, projected to the
+     * list view fields and in index order
+     */
+    List<User> findSummariesBySearchKeyPrefix(String prefix, int limit);
+
+    void incrementFollowCounts(String followerId, String followingId, long delta);
+
+    void incrementFollowerCounts(Collection<String> userIds, long delta);
+
+    void incrementFollowingCounts(Collection<String> userIds, long delta);
+
+    void incrementFriendCounts(Collection<String> userIds, long delta);
+}
@@ -0,0 +1,99 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final List<String> SEARCHABLE_FIELDS = List.of("username", "firstName", "lastName");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public User updateFields(String userId, Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        User user = mongoTemplate.findAndModify(
+                new Query(where("_id").is(userId)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+
+        if (user != null && SEARCHABLE_FIELDS.stream().anyMatch(fields::containsKey)) {
+            user.setSearchKeys(UserSearchKeys.of(user));
+            mongoTemplate.updateFirst(new Query(where("_id").is(userId)),
+                    new Update().set("searchKeys", user.getSearchKeys()), User.class);
+        }
+        return user;
+    }
+
+    @Override
+    public List<User> findSummariesBySearchKey(String key, int limit) {
+        return mongoTemplate.find(summaryQuery(where("searchKeys").is(key), limit), User.class);
+    }
+
+    @Override
+    public List<User> findSummariesBySearchKeyPrefix(String prefix, int limit) {
+        return mongoTemplate.find(summaryQuery(where("searchKeys").regex(UserSearchKeys.prefixRegex(prefix)), limit), User.class);
+    }
+
+    private Query summaryQuery(Criteria criteria, int limit) {
+        Query query = new Query(criteria).limit(limit);
+        query.fields().include("username", "firstName", "lastName", "biography", "profilePicture", "coverPhoto");
+        return query;
+    }
+
+    @Override
+    public void incrementFollowCounts(String followerId, String followingId, long delta) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        ops.updateOne(counterQuery(where("_id").is(followerId), "followingCount", delta),
+                new Update().inc("followingCount", delta));
+        ops.updateOne(counterQuery(where("_id").is(followingId), "followerCount", delta),
+                new Update().inc("followerCount", delta));
+        ops.execute();
+    }
+
+    @Override
+    public void incrementFollowerCounts(Collection<String> userIds, long delta) {
+        incrementMany(userIds, "followerCount", delta);
+    }
+
+    @Override
+    public void incrementFollowingCounts(Collection<String> userIds, long delta) {
+        incrementMany(userIds, "followingCount", delta);
+    }
+
+    @Override
+    public void incrementFriendCounts(Collection<String> userIds, long delta) {
+        incrementMany(userIds, "friendCount", delta);
+    }
+
+    private void incrementMany(Collection<String> userIds, String counter, long delta) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(counterQuery(where("_id").in(userIds), counter, delta),
+                new Update().inc(counter, delta), User.class);
+    }
+
+    // Decrements never take a counter below zero; drift is left to the reconciliation job
+    private Query counterQuery(Criteria criteria, String counter, long delta) {
+        if (delta < 0) {
+            criteria = criteria.and(counter).gte(-delta);
+        }
+        return new Query(criteria);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized search keys of a user: username, first name, last name and full name, lower-cased
+ * and without accents. Stored on the user and indexed, so prefix searches are index range scans.
+ */
+public final class UserSearchKeys {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern REGEX_SPECIAL = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    private UserSearchKeys() {
+    }
+
+    public static List<String> of(User user) {
+        return of(user.getUsername(), user.getFirstName(), user.getLastName());
+    }
+
+    public static List<String> of(String username, String firstName, String lastName) {
+        List<String> keys = new ArrayList<>(4);
+        add(keys, normalize(username));
+        add(keys, normalize(firstName));
+        add(keys, normalize(lastName));
+        add(keys, normalize((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")));
+        return keys;
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Anchored, case-sensitive regex for the given normalized prefix, the only regex form
+     * MongoDB can turn into index bounds
+     */
+    public static String prefixRegex(String normalizedPrefix) {
+        return "^" + REGEX_SPECIAL.matcher(normalizedPrefix).replaceAll("\\\\$0");
+    }
+
+    private static void add(List<String> keys, String key) {
+        if (!key.isEmpty() && !keys.contains(key)) {
+            keys.add(key);
+        }
+    }
+}
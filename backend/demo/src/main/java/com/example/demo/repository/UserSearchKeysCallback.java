@@ -0,0 +1,18 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the search keys whenever a whole user document is written
+ */
+@Component
+public class UserSearchKeysCallback implements BeforeConvertCallback<User> {
+
+    @Override
+    public User onBeforeConvert(User user, String collection) {
+        user.setSearchKeys(UserSearchKeys.of(user));
+        return user;
+    }
+}
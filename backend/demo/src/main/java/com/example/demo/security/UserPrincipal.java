@@ -26,6 +26,9 @@ public class UserPrincipal implements UserDetails {
     private String firstName;
     private String lastName;
     private String profilePicture;
+
+    // False once the account is locked, e.g. while it is being deleted
+    private boolean enabled;
     
     public UserPrincipal(String id, String username, String password, String email, 
                        Collection<? extends GrantedAuthority> authorities) {
@@ -37,6 +40,7 @@ public class UserPrincipal implements UserDetails {
         this.firstName = null;
         this.lastName = null;
         this.profilePicture = null;
+        this.enabled = true;
     }
     
     /**
@@ -51,10 +55,19 @@ public class UserPrincipal implements UserDetails {
                 Collections.emptyList(),
                 user.getFirstName(),
                 user.getLastName(),
-                user.getProfilePicture()
+                user.getProfilePicture(),
+                user.isEnabled()
         );
     }
 
+    /**
+     * Creates a UserPrincipal from verified token claims without touching the database.
+     * Callers check DisabledAccountRegistry, since the claims say nothing about the account state.
+     */
+    public static UserPrincipal fromClaims(String id, String username) {
+        return new UserPrincipal(id, username, null, null, Collections.emptyList());
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -87,7 +100,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
     
     @Override
@@ -87,6 +87,7 @@ public class WebSecurityConfig {
                     .requestMatchers("/api/notifications/**").permitAll()
                     .requestMatchers("/api/comments/**").permitAll()
                     .requestMatchers("/api/likes/**").permitAll()
+                    .requestMatchers("/api/post-stats/**").permitAll()
                     .requestMatchers("/api/communities/**").permitAll()
                     .requestMatchers("/api/progress/**").permitAll()
                     .anyRequest().authenticated()
@@ -1,5 +1,6 @@
 package com.example.demo.security.jwt;
 import com.example.demo.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,12 +8,13 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.demo.security.services.DisabledAccountRegistry;
 import com.example.demo.security.services.UserDetailsServiceImpl;
 import org.springframework.lang.NonNull;
 
@@ -25,6 +27,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private DisabledAccountRegistry disabledAccounts;
+
+    // When enabled the principal is built from the token claims and the users collection is never read
+    @Value("${skillhive.app.principalFromClaims:false}")
+    private boolean principalFromClaims;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -34,11 +43,20 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.getValidatedClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+                String userId = claims.get("userId", String.class);
+
+                UserPrincipal userPrincipal = principalFromClaims && userId != null
+                        ? UserPrincipal.fromClaims(userId, username)
+                        : userDetailsService.loadUserPrincipal(username);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UserPrincipal userPrincipal = (UserPrincipal) userDetails;
+                // Locked accounts, e.g. ones being deleted, keep valid tokens until they expire
+                if (!userPrincipal.isEnabled() || disabledAccounts.isDisabled(userPrincipal.getId())) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Account is disabled");
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userPrincipal,
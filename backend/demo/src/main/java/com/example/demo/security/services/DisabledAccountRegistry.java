@@ -0,0 +1,77 @@
+package com.example.demo.security.services;
+
+import com.example.demo.model.AccountDeletion;
+import com.example.demo.model.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Denylist of accounts whose tokens must no longer be accepted: disabled users and users with an
+ * account deletion, including those already removed. Lets the claims-only authentication mode
+ * reject them without reading the user. Accounts disabled on this instance are added right away;
+ * the list is reloaded periodically to pick up the other instances. Only deletions younger than
+ * the token lifetime are read, since tokens issued before them have expired anyway.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DisabledAccountRegistry {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    private volatile Set<String> disabled = Set.of();
+    // Disabled on this instance; kept across reloads so a reload that read just before the
+    // account was disabled cannot drop it
+    private final Set<String> disabledHere = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    public boolean isDisabled(String userId) {
+        return userId != null && (disabled.contains(userId) || disabledHere.contains(userId));
+    }
+
+    public void disable(String userId) {
+        disabledHere.add(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${skillhive.app.disabledAccountsRefreshMs:30000}",
+            initialDelayString = "${skillhive.app.disabledAccountsRefreshMs:30000}")
+    public void reload() {
+        try {
+            Set<String> ids = new HashSet<>();
+            // Served by the partial index on disabled users
+            Query users = new Query(where("enabled").is(false));
+            users.fields().include("_id");
+            mongoTemplate.find(users, User.class).forEach(user -> ids.add(user.getId()));
+
+            Query deletions = new Query(where("createdAt").gte(LocalDateTime.now().minus(Duration.ofMillis(jwtExpirationMs))));
+            deletions.fields().include("userId");
+            mongoTemplate.find(deletions, AccountDeletion.class).forEach(deletion -> ids.add(deletion.getUserId()));
+
+            disabled = ids;
+        } catch (RuntimeException e) {
+            // Keep the previous list rather than letting disabled accounts back in
+            log.error("Could not reload disabled accounts: {}", e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.demo.security.services;
 
+import com.example.demo.cache.LocalCache;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,6 +18,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Value("${skillhive.app.principalCacheSize:10000}")
+    private int principalCacheSize;
+
+    @Value("${skillhive.app.principalCacheTtlMs:60000}")
+    private long principalCacheTtlMs;
+
+    private LocalCache<String, UserPrincipal> principalCache;
+
+    @PostConstruct
+    void init() {
+        principalCache = new LocalCache<>(principalCacheSize, principalCacheTtlMs);
+    }
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -23,4 +39,23 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserPrincipal.build(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Cached variant of loadUserByUsername for token-authenticated requests.
+     * Login still goes through loadUserByUsername so credentials are always checked against the database.
+     */
+    public UserPrincipal loadUserPrincipal(String username) throws UsernameNotFoundException {
+        UserPrincipal principal = principalCache.get(username);
+        if (principal == null) {
+            principal = (UserPrincipal) loadUserByUsername(username);
+            principalCache.put(username, principal);
+        }
+        return principal;
+    }
+
+    public void evictUser(String username) {
+        if (username != null) {
+            principalCache.invalidate(username);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AccountDeletion;
+
+public interface AccountDeletionService {
+    /**
+     * Disables the account and schedules the removal of its data. Returns the existing
+     * deletion if one is already in progress for the user.
+     */
+    AccountDeletion requestDeletion(String userId);
+
+    AccountDeletion getDeletion(String deletionId);
+}
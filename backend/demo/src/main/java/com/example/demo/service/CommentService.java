@@ -3,6 +3,7 @@ package com.example.demo.service;
 
 
 import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.PaginatedResponse;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,5 +14,6 @@ public interface CommentService {
     CommentDTO updateComment(String commentId, CommentDTO commentDTO);
     void deleteComment(String commentId);
     Page<CommentDTO> getPostComments(String postId, Pageable pageable);
+    PaginatedResponse<CommentDTO> getReplies(String commentId, String cursor, int limit);
     long getCommentCount(String postId);
 }
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PaginatedResponse;
 import com.example.demo.model.Community;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,7 +12,10 @@ public interface CommunityService {
     
     List<Community> getAllCommunities();
     
-    Community createCommunity(Community community);
+    /**
+     * Creates the community with the creator as its first admin
+     */
+    Community createCommunity(Community community, String creatorId);
     
     Optional<Community> getCommunityById(String id);
     
@@ -21,12 +25,31 @@ public interface CommunityService {
     
     void deleteCommunity(String id);
     
+    /**
+     * @return false if the user already was a member
+     * @throws com.example.demo.exception.ResourceNotFoundException if the community or user does not exist
+     */
     boolean addMember(String communityId, String userId);
     
+    /**
+     * @return false if the user was not a member
+     */
     boolean removeMember(String communityId, String userId);
     
+    /**
+     * Makes the user an admin, joining them to the community first if needed
+     *
+     * @return false if the user already was an admin
+     * @throws com.example.demo.exception.ResourceNotFoundException if the community or user does not exist
+     */
     boolean addAdmin(String communityId, String userId);
     
+    /**
+     * Demotes an admin to a plain member
+     *
+     * @return false if the user was not an admin
+     * @throws com.example.demo.exception.BadRequestException if the user is the last admin
+     */
     boolean removeAdmin(String communityId, String userId);
     
     List<Community> getCommunitiesByMember(String userId);
@@ -51,11 +74,19 @@ public interface CommunityService {
     
     Page<Community> getCommunitiesByNameContaining(String name, Pageable pageable);
     
-    List<String> getCommunityMembers(String communityId);
+    /**
+     * Member ids, newest member first. Pass the returned nextCursor to get the following page.
+     */
+    PaginatedResponse<String> getCommunityMembers(String communityId, String cursor, int limit);
     
     List<String> getCommunityAdmins(String communityId);
     
     boolean isAdmin(String communityId, String userId);
     
     boolean isMember(String communityId, String userId);
+
+    /**
+     * Sets the member and admin flags of the given communities for one user, with a single query
+     */
+    void markMembership(List<Community> communities, String userId);
 }
\ No newline at end of file
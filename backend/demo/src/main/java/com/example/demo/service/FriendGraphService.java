@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface FriendGraphService {
+    /**
+     * Adds both edges, returning true if the two users were not friends before
+     */
+    boolean addFriendship(String userId1, String userId2);
+
+    /**
+     * Removes the user from the graph and returns the ids of their former friends
+     */
+    Set<String> removeUser(String userId);
+    boolean areFriends(String userId1, String userId2);
+    Set<String> getFriendIds(String userId);
+    Set<String> getFriendIdsAmong(String userId, Collection<String> candidateIds);
+    long countFriends(String userId);
+}
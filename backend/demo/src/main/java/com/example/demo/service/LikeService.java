@@ -10,5 +10,6 @@ public interface LikeService {
     boolean hasUserLiked(String postId);
     List<LikeDTO> getPostLikes(String postId);
     long getLikeCount(String postId);
+    void discardPendingLikes(String userId);
 }
 
@@ -6,15 +6,45 @@ import com.example.demo.dto.NotificationDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationService {
     NotificationDTO createNotification(String userId, String actorId, String actorName, String type, String referenceId, String content);
+
+    /**
+     * Sends the same notification to many users, inserting them in batches
+     */
+    void createNotifications(Collection<String> userIds, String actorId, String actorName, String type, String referenceId, String content);
+    /**
+     * Merges the notification into the unread one for the same user, type and reference created
+     * within the grouping window, or starts a new group. Pushes are throttled per group.
+     *
+     * @param action what the actor did, e.g. "liked your post"
+     */
+    void createGroupedNotification(String userId, String actorId, String actorName, String type, String referenceId, String action);
+
     Page<NotificationDTO> getUserNotifications( Pageable pageable);
+
+    /**
+     * Read notifications older than the retention period, newest first
+     */
+    Page<NotificationDTO> getArchivedNotifications(Pageable pageable);
     List<NotificationDTO> getUnreadNotifications();
     void markAsReadWS(String notificationId, String userId);
     void markAsReadAPI(String notificationId);
-    void markAllAsRead();
+
+    /**
+     * Marks the given notifications of the user read with one update; ids of other users are ignored
+     *
+     * @return the number of notifications that changed
+     */
+    long markAsReadWS(Collection<String> notificationIds, String userId);
+
+    /**
+     * @return the number of notifications that changed
+     */
+    long markAllAsRead();
     long getUnreadCountWS(String userId);
     long getUnreadCountAPI();
 }
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PostStats;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface PostStatsService {
+    void addLikes(String postId, long delta);
+    void addComments(String postId, long delta);
+    PostStats getStats(String postId);
+    Map<String, PostStats> getStats(Collection<String> postIds);
+}
@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UserRecommendations;
+
+import java.util.List;
+
+public interface RecommendationService {
+    List<UserRecommendations.Suggestion> getSuggestions(String userId, int limit);
+
+    /**
+     * Recomputes and stores the suggestions of the given users. Meant to be called on one
+     * partition of users at a time by the recommendation job.
+     */
+    void recompute(List<String> userIds);
+}
@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.RelationshipStatus;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface RelationshipService {
+    /**
+     * Resolves follow, friendship and pending request flags between the viewer and every target
+     * with a fixed number of queries. Every target id is present in the returned map.
+     */
+    Map<String, RelationshipStatus> resolve(String viewerId, Collection<String> targetIds);
+}
@@ -1,8 +1,10 @@
 package com.example.demo.service;
 
 import java.util.List;
+import java.util.Set;
 import com.example.demo.model.User;
 import com.example.demo.model.FriendRequest;
+import com.example.demo.dto.PaginatedResponse;
 import com.example.demo.dto.SignupRequest;
 import com.example.demo.dto.UserRegistrationDto;
 import com.example.demo.dto.ProfileCompletionDto;
@@ -17,16 +19,16 @@ public interface UserService {
     boolean isProfileComplete(String userId);
     void followUser(String userId, String userToFollowId);
     void unfollowUser(String userId, String userToUnfollowId);
-    List<User> getFollowers(String userId);
-    List<User> getFollowing(String userId);
+    PaginatedResponse<User> getFollowers(String userId, String cursor, int limit);
+    PaginatedResponse<User> getFollowing(String userId, String cursor, int limit);
     void sendFriendRequest(String senderId, String receiverId);
     void acceptFriendRequest(String requestId);
     void declineFriendRequest(String requestId);
     void cancelFriendRequest(String senderId, String receiverId);
     List<User> getFriends(String userId);
+    Set<String> getFriendIds(String userId);
     List<User> getMutualFriends(String userId1, String userId2);
     List<FriendRequest> getPendingSentFriendRequests(String userId);
     List<FriendRequest> getPendingReceivedFriendRequests(String userId);
-    void deleteProfile(String userId);
     List<User> searchUsers(String query, int limit);
 } 
\ No newline at end of file
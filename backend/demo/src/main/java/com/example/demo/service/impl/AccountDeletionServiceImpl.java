@@ -0,0 +1,99 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.job.AccountDeletionWorker;
+import com.example.demo.model.AccountDeletion;
+import com.example.demo.model.DeletionStatus;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.services.DisabledAccountRegistry;
+import com.example.demo.security.services.UserDetailsServiceImpl;
+import com.example.demo.service.AccountDeletionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@RequiredArgsConstructor
+public class AccountDeletionServiceImpl implements AccountDeletionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final DisabledAccountRegistry disabledAccounts;
+    private final AccountDeletionWorker accountDeletionWorker;
+
+    @Override
+    public AccountDeletion requestDeletion(String userId) {
+        AccountDeletion inProgress = findActive(userId);
+        if (inProgress != null) {
+            return resumeIfFailed(inProgress);
+        }
+
+        // Lock the account right away; the data goes in the background
+        User user = userRepository.updateFields(userId, Map.of("enabled", false));
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        userDetailsService.evictUser(user.getUsername());
+        disabledAccounts.disable(userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        AccountDeletion deletion;
+        try {
+            deletion = mongoTemplate.insert(new AccountDeletion(null, userId, user.getUsername(),
+                    DeletionStatus.PENDING, true, null, new LinkedHashMap<>(), null, 0, null, now, now));
+        } catch (DuplicateKeyException e) {
+            // A concurrent request created it first
+            return findActive(userId);
+        }
+        accountDeletionWorker.submit(deletion.getId());
+        return deletion;
+    }
+
+    private AccountDeletion findActive(String userId) {
+        return mongoTemplate.findOne(new Query(where("userId").is(userId)
+                        .and("status").in(List.of(DeletionStatus.PENDING, DeletionStatus.RUNNING, DeletionStatus.FAILED))),
+                AccountDeletion.class);
+    }
+
+    // Asking again retries a failed deletion right away instead of waiting for its backoff
+    private AccountDeletion resumeIfFailed(AccountDeletion deletion) {
+        if (deletion.getStatus() != DeletionStatus.FAILED) {
+            return deletion;
+        }
+        AccountDeletion resumed = mongoTemplate.findAndModify(
+                new Query(where("_id").is(deletion.getId()).and("status").is(DeletionStatus.FAILED)),
+                new Update().set("status", DeletionStatus.PENDING)
+                        .set("active", true)
+                        .unset("nextAttemptAt")
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                AccountDeletion.class);
+        if (resumed == null) {
+            return mongoTemplate.findById(deletion.getId(), AccountDeletion.class);
+        }
+        accountDeletionWorker.submit(resumed.getId());
+        return resumed;
+    }
+
+    @Override
+    public AccountDeletion getDeletion(String deletionId) {
+        AccountDeletion deletion = mongoTemplate.findById(deletionId, AccountDeletion.class);
+        if (deletion == null) {
+            throw new ResourceNotFoundException("Account deletion not found: " + deletionId);
+        }
+        return deletion;
+    }
+}
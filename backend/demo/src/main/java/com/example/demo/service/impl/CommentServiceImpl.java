@@ -1,79 +1,109 @@
 package com.example.demo.service.impl;
 
 import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.PaginatedResponse;
+import com.example.demo.event.CommentRepliedEvent;
+import com.example.demo.event.PostCommentedEvent;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.exception.UnauthorizedException;
 import com.example.demo.model.Comment;
 import com.example.demo.repository.CommentRepository;
 import com.example.demo.security.UserPrincipal;
 import com.example.demo.service.CommentService;
-import com.example.demo.service.NotificationService;
+import com.example.demo.service.PostStatsService;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.LookupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 @Service
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher events;
+    private final PostStatsService postStatsService;
+    private final MongoTemplate mongoTemplate;
+
+    // Bounds the length of a comment's path
+    private static final int MAX_DEPTH = 64;
+
+    @Value("${skillhive.comments.reply-preview-size:3}")
+    private int replyPreviewSize;
 
     @Override
+    @Transactional
     public CommentDTO createComment(CommentDTO commentDTO) {
         UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String userId = user.getId();
         String userDisplayName = user.getUsername();
+        String id = new ObjectId().toHexString();
         Comment comment = Comment.builder()
+                .id(id)
                 .content(commentDTO.getContent())
                 .postId(commentDTO.getPostId())
                 .userId(userId)
                 .userDisplayName(userDisplayName)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
+                .path(id)
+                .depth(0)
                 .deleted(false)
-                .replies(new ArrayList<>())
                 .build();
 
-        Comment savedComment = commentRepository.save(comment);
+        Comment savedComment = commentRepository.insert(comment);
+        postStatsService.addComments(savedComment.getPostId(), 1);
 
         // Notify post owner (assuming there's a way to get post owner ID)
         // This will be implemented in a real application by fetching post details
         // For now, let's assume we can get the post owner ID from somewhere
         String postOwnerId = "post-owner-id"; // This should be fetched from the Post service
 
-        // Send notification only if commenter is not the post owner
-        if (!userId.equals(postOwnerId)) {
-            notificationService.createNotification(
-                    postOwnerId,
-                    userId,
-                    userDisplayName,
-                    "COMMENT",
-                    savedComment.getPostId(),
-                    userDisplayName + " commented on your post"
-            );
-        }
+        // The post owner is notified unless they commented themselves
+        events.publishEvent(new PostCommentedEvent(
+                savedComment.getPostId(), postOwnerId, savedComment.getId(), userId, userDisplayName));
 
         return mapToDTO(savedComment);
     }
 
     @Override
+    @Transactional
     public CommentDTO replyToComment(String parentCommentId, CommentDTO replyDTO) {
         UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String userId = user.getId();
         String userDisplayName = user.getUsername();
         Comment parentComment = commentRepository.findById(parentCommentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Parent comment not found"));
+        if (parentComment.getDepth() >= MAX_DEPTH) {
+            throw new BadRequestException("Replies cannot be nested more than " + MAX_DEPTH + " levels deep");
+        }
 
+        String id = new ObjectId().toHexString();
         Comment reply = Comment.builder()
+                .id(id)
                 .content(replyDTO.getContent())
                 .postId(parentComment.getPostId())
                 .userId(userId)
@@ -81,27 +111,21 @@ public class CommentServiceImpl implements CommentService {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .parentCommentId(parentCommentId)
+                .rootId(parentComment.threadRootId())
+                .path(parentComment.getPath() + Comment.PATH_SEPARATOR + id)
+                .depth(parentComment.getDepth() + 1)
                 .deleted(false)
-                .replies(new ArrayList<>())
                 .build();
 
-        Comment savedReply = commentRepository.save(reply);
-
-        // Update parent comment with reply reference
-        parentComment.getReplies().add(savedReply.getId());
-        commentRepository.save(parentComment);
+        Comment savedReply = commentRepository.insert(reply);
+        postStatsService.addComments(savedReply.getPostId(), 1);
+        // After commit, so concurrent replies to one comment do not conflict on the parent
+        AfterCommit.run(() -> mongoTemplate.updateFirst(new Query(where("_id").is(parentCommentId)),
+                new Update().inc("replyCount", 1), Comment.class));
 
         // Notify the original commenter
-        if (!userId.equals(parentComment.getUserId())) {
-            notificationService.createNotification(
-                    parentComment.getUserId(),
-                    userId,
-                    userDisplayName,
-                    "REPLY",
-                    parentComment.getId(),
-                    userDisplayName + " replied to your comment"
-            );
-        }
+        events.publishEvent(new CommentRepliedEvent(
+                parentComment.getId(), parentComment.getUserId(), savedReply.getId(), userId, userDisplayName));
 
         return mapToDTO(savedReply);
     }
@@ -119,11 +143,15 @@ public class CommentServiceImpl implements CommentService {
         comment.setContent(commentDTO.getContent());
         comment.setUpdatedAt(LocalDateTime.now());
 
-        Comment updatedComment = commentRepository.save(comment);
-        return mapToDTO(updatedComment);
+        // Only the edited fields are written so concurrent replyCount increments are kept
+        mongoTemplate.updateFirst(new Query(where("_id").is(commentId)), new Update()
+                .set("content", comment.getContent())
+                .set("updatedAt", comment.getUpdatedAt()), Comment.class);
+        return mapToDTO(comment);
     }
 
     @Override
+    @Transactional
     public void deleteComment(String commentId) {
         UserPrincipal user = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Comment comment = commentRepository.findById(commentId)
@@ -136,38 +164,113 @@ public class CommentServiceImpl implements CommentService {
             throw new UnauthorizedException("You can only delete your own comments or comments on your post");
         }
 
-        // Soft delete
-        comment.setDeleted(true);
-        comment.setContent("This comment has been deleted");
-        commentRepository.save(comment);
+        // Soft delete. Only the request that flips the flag takes the comment off the count.
+        long deleted = mongoTemplate.updateFirst(new Query(where("_id").is(commentId).and("deleted").is(false)), new Update()
+                .set("deleted", true)
+                .set("content", "This comment has been deleted"), Comment.class).getModifiedCount();
+        if (deleted > 0) {
+            postStatsService.addComments(comment.getPostId(), -1);
+        }
     }
 
     @Override
     public Page<CommentDTO> getPostComments(String postId, Pageable pageable) {
         Page<Comment> commentPage = commentRepository.findByPostIdAndParentCommentIdIsNull(postId, pageable);
+        Map<String, ReplyPreview> previews = loadReplyPreviews(commentPage.getContent());
 
         return commentPage.map(comment -> {
             CommentDTO dto = mapToDTO(comment);
-
-            // Fetch and map replies for each top-level comment
-            if (!comment.getReplies().isEmpty()) {
-                List<CommentDTO> replyDTOs = comment.getReplies().stream()
-                        .map(replyId -> commentRepository.findById(replyId).orElse(null))
-                        .filter(Objects::nonNull)
-                        .map(this::mapToDTO)
-                        .collect(Collectors.toList());
-                dto.setReplies(replyDTOs);
-            } else {
+            ReplyPreview preview = previews.get(comment.getId());
+            if (preview == null) {
                 dto.setReplies(new ArrayList<>());
+                return dto;
             }
 
+            List<Comment> replies = preview.getReplies();
+            dto.setReplies(replies.stream().map(this::mapToDTO).collect(Collectors.toList()));
+            if (preview.getTotal() > replies.size()) {
+                dto.setRepliesCursor(replies.get(replies.size() - 1).getPath());
+            }
             return dto;
         });
     }
 
+    @Override
+    public PaginatedResponse<CommentDTO> getReplies(String commentId, String cursor, int limit) {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
+        if (cursor != null && !cursor.startsWith(comment.subtreeStart())) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+
+        Criteria subtree = where("rootId").is(comment.threadRootId())
+                .and("path").gte(comment.subtreeStart()).lt(comment.subtreeEnd());
+        long total = mongoTemplate.count(new Query(subtree), Comment.class);
+
+        // Fetch one extra reply to know whether another page exists
+        Criteria page = cursor == null
+                ? subtree
+                : where("rootId").is(comment.threadRootId()).and("path").gt(cursor).lt(comment.subtreeEnd());
+        List<Comment> replies = mongoTemplate.find(new Query(page)
+                .with(Sort.by(Sort.Direction.ASC, "path"))
+                .limit(limit + 1), Comment.class);
+
+        boolean hasMore = replies.size() > limit;
+        List<Comment> content = hasMore ? replies.subList(0, limit) : replies;
+        String nextCursor = hasMore ? content.get(content.size() - 1).getPath() : null;
+        return PaginatedResponse.cursor(
+                content.stream().map(this::mapToDTO).collect(Collectors.toList()),
+                limit, total, nextCursor);
+    }
+
+    /**
+     * Loads the first replies of every thread on the page, keyed by top-level comment id.
+     * Replies at any depth come back in display order; only the first replyPreviewSize of each
+     * thread are read, with one bounded $lookup per thread, and the rest are paged through
+     * getReplies. The totals come from a separate count that holds no documents.
+     */
+    private Map<String, ReplyPreview> loadReplyPreviews(List<Comment> comments) {
+        List<String> rootIds = comments.stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList());
+        if (rootIds.isEmpty()) {
+            return Map.of();
+        }
+
+        // The path of a top-level comment is its own id, as stored in the rootId of its replies
+        Aggregation previewAggregation = Aggregation.newAggregation(
+                Aggregation.match(where("_id").in(rootIds.stream().map(ObjectId::new).toList())),
+                LookupOperation.newLookup()
+                        .from("comments")
+                        .localField("path")
+                        .foreignField("rootId")
+                        .pipeline(Aggregation.sort(Sort.Direction.ASC, "path"), Aggregation.limit(replyPreviewSize))
+                        .as("replies"),
+                Aggregation.project("replies"));
+        Map<String, ReplyPreview> previews = mongoTemplate.aggregate(previewAggregation, "comments", ReplyPreview.class)
+                .getMappedResults().stream()
+                .filter(preview -> !preview.getReplies().isEmpty())
+                .collect(Collectors.toMap(ReplyPreview::getId, Function.identity()));
+
+        Aggregation countAggregation = Aggregation.newAggregation(
+                Aggregation.match(where("rootId").in(previews.keySet())),
+                Aggregation.group("rootId").count().as("total"));
+        mongoTemplate.aggregate(countAggregation, "comments", ReplyPreview.class).getMappedResults()
+                .forEach(count -> previews.get(count.getId()).setTotal(count.getTotal()));
+        return previews;
+    }
+
     @Override
     public long getCommentCount(String postId) {
-        return commentRepository.countByPostId(postId);
+        return postStatsService.getStats(postId).getCommentCount();
+    }
+
+    @Data
+    static class ReplyPreview {
+        // The top-level comment id
+        private String id;
+        private List<Comment> replies;
+        private long total;
     }
 
     private CommentDTO mapToDTO(Comment comment) {
@@ -180,6 +283,8 @@ public class CommentServiceImpl implements CommentService {
                 .createdAt(comment.getCreatedAt())
                 .updatedAt(comment.getUpdatedAt())
                 .parentCommentId(comment.getParentCommentId())
+                .depth(comment.getDepth())
+                .replyCount(comment.getReplyCount())
                 .deleted(comment.isDeleted())
                 .build();
     }
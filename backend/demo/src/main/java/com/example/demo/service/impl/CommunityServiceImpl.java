@@ -1,31 +1,73 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.RequestMemo;
+import com.example.demo.cache.TwoTierCache;
+import com.example.demo.cache.TwoTierCacheManager;
+import com.example.demo.dto.PaginatedResponse;
+import com.example.demo.event.CommunityMemberJoinedEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Community;
+import com.example.demo.model.CommunityMembership;
+import com.example.demo.model.CommunityRole;
+import com.example.demo.model.User;
+import com.example.demo.repository.CommunityMembershipRepository;
 import com.example.demo.repository.CommunityRepository;
-import com.example.demo.repository.UserRepository;
 import com.example.demo.service.CommunityService;
-import com.example.demo.service.NotificationService;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Service
 public class CommunityServiceImpl implements CommunityService {
 
+    private static final int MAX_JOIN_ATTEMPTS = 5;
+    private static final long JOIN_RETRY_DELAY_MS = 20;
+
     private final CommunityRepository communityRepository;
-    private final UserRepository userRepository;
-    @Autowired
-    private NotificationService notificationService;
+    private final CommunityMembershipRepository membershipRepository;
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+
+    private final TwoTierCache<Community> communityCache;
 
     @Autowired
-    public CommunityServiceImpl(CommunityRepository communityRepository, UserRepository userRepository) {
+    public CommunityServiceImpl(CommunityRepository communityRepository,
+                                CommunityMembershipRepository membershipRepository,
+                                MongoTemplate mongoTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher events,
+                                TwoTierCacheManager cacheManager) {
         this.communityRepository = communityRepository;
-        this.userRepository = userRepository;
+        this.membershipRepository = membershipRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.communityCache = cacheManager.create("community", Community.class);
     }
     
     @Override
@@ -39,13 +81,20 @@ public class CommunityServiceImpl implements CommunityService {
     }
 
     @Override
-    public Community createCommunity(Community community) {
-        return communityRepository.save(community);
+    public Community createCommunity(Community community, String creatorId) {
+        // Counts are owned by the membership operations, never by the client
+        community.setMemberCount(0);
+        community.setAdminCount(0);
+        Community created = communityRepository.save(community);
+        addAdmin(created.getId(), creatorId);
+        created.setMemberCount(1);
+        created.setAdminCount(1);
+        return created;
     }
 
     @Override
     public Optional<Community> getCommunityById(String id) {
-        return communityRepository.findById(id);
+        return Optional.ofNullable(communityCache.get(id, () -> communityRepository.findById(id).orElse(null)));
     }
 
     @Override
@@ -55,106 +104,157 @@ public class CommunityServiceImpl implements CommunityService {
 
     @Override
     public Optional<Community> updateCommunity(Community community) {
-        if (communityRepository.existsById(community.getId())) {
-            Community updated = communityRepository.save(community);
-            return Optional.of(updated);
+        // Only the descriptive fields; the counts are maintained by the membership operations
+        Update update = new Update()
+                .set("name", community.getName())
+                .set("description", community.getDescription())
+                .set("coverImage", community.getCoverImage())
+                .set("icon", community.getIcon())
+                .set("isPublic", community.isPublic())
+                .set("category", community.getCategory())
+                .set("tags", community.getTags());
+        Community updated = mongoTemplate.findAndModify(
+                new Query(where("_id").is(community.getId())),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Community.class);
+        if (updated == null) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        communityCache.evict(updated.getId());
+        return Optional.of(updated);
     }
 
     @Override
     public void deleteCommunity(String id) {
         communityRepository.deleteById(id);
+        membershipRepository.deleteByCommunityId(id);
+        communityCache.evict(id);
     }
 
     @Override
     public boolean addMember(String communityId, String userId) {
-        Optional<Community> communityOpt = communityRepository.findById(communityId);
-        if (communityOpt.isPresent() && userRepository.existsById(userId)) {
-            Community community = communityOpt.get();
-            community.getMemberIds().add(userId);
-            communityRepository.save(community);
-
-         // Notify all admins when a new member joins
-        var user = userRepository.findById(userId).orElse(null);
-        if (user != null) {
-            for (String adminId : community.getAdminIds()) {
-                notificationService.createNotification(
-                    adminId,
-                    userId,
-                    user.getUsername(), // actorName
-                    "COMMUNITY_JOIN",
-                    communityId,
-                    user.getUsername() + " joined your community"
-                );
+        String username = findUsername(userId);
+
+        // The membership and the event publication commit together, the admins are notified
+        // afterwards. The unique (communityId, userId) index makes the insert the single point
+        // of truth, so concurrent joins of different users never overwrite each other.
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!mongoTemplate.exists(new Query(where("_id").is(communityId)), Community.class)) {
+                        throw new ResourceNotFoundException("Community not found: " + communityId);
+                    }
+                    membershipRepository.insert(new CommunityMembership(communityId, userId, CommunityRole.MEMBER));
+                    events.publishEvent(new CommunityMemberJoinedEvent(communityId, userId, username));
+                });
+                break;
+            } catch (DuplicateKeyException e) {
+                return false;
+            } catch (TransientDataAccessException e) {
+                // A concurrent join of the same user holds the key in a transaction that has not
+                // committed yet; once it has, the retry sees the duplicate
+                if (attempt == MAX_JOIN_ATTEMPTS) {
+                    throw e;
+                }
+                backOff(attempt);
             }
         }
-            return true;
-        }
-        return false;
-        
+        // Outside the transaction, so concurrent joins do not conflict on the community document.
+        // CommunityCounterReconciliationJob repairs the count if the process stops before this.
+        incrementCounts(communityId, 1, 0);
+        evictMembership(communityId, userId);
+        return true;
     }
 
     @Override
     public boolean removeMember(String communityId, String userId) {
-        Optional<Community> communityOpt = communityRepository.findById(communityId);
-        if (communityOpt.isPresent()) {
-            Community community = communityOpt.get();
-            boolean removed = community.getMemberIds().remove(userId);
-            if (removed) {
-                communityRepository.save(community);
-                return true;
-            }
+        CommunityMembership removed = mongoTemplate.findAndRemove(
+                membershipQuery(communityId, userId), CommunityMembership.class);
+        if (removed == null) {
+            return false;
         }
-        return false;
+        incrementCounts(communityId, -1, removed.getRole() == CommunityRole.ADMIN ? -1 : 0);
+        evictMembership(communityId, userId);
+        return true;
     }
 
     @Override
     public boolean addAdmin(String communityId, String userId) {
-        Optional<Community> communityOpt = communityRepository.findById(communityId);
-        if (communityOpt.isPresent() && userRepository.existsById(userId)) {
-            Community community = communityOpt.get();
-            // Make sure the user is a member first
-            community.getMemberIds().add(userId);
-            community.getAdminIds().add(userId);
-            communityRepository.save(community);
-            return true;
+        findUsername(userId);
+
+        // Joins and promotes in one step; the previous state tells which counts changed
+        Update update = new Update()
+                .set("role", CommunityRole.ADMIN)
+                .setOnInsert("joinedAt", LocalDateTime.now());
+        CommunityMembership previous;
+        try {
+            previous = mongoTemplate.findAndModify(membershipQuery(communityId, userId), update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(false), CommunityMembership.class);
+        } catch (DuplicateKeyException e) {
+            // Lost an insert race with a concurrent join, the membership exists now
+            previous = mongoTemplate.findAndModify(membershipQuery(communityId, userId), update,
+                    FindAndModifyOptions.options().returnNew(false), CommunityMembership.class);
+        }
+
+        if (previous != null && previous.getRole() == CommunityRole.ADMIN) {
+            return false;
+        }
+        if (!incrementCounts(communityId, previous == null ? 1 : 0, 1)) {
+            mongoTemplate.remove(membershipQuery(communityId, userId), CommunityMembership.class);
+            throw new ResourceNotFoundException("Community not found: " + communityId);
         }
-        return false;
+        evictMembership(communityId, userId);
+        return true;
     }
 
     @Override
     public boolean removeAdmin(String communityId, String userId) {
-        Optional<Community> communityOpt = communityRepository.findById(communityId);
-        if (communityOpt.isPresent()) {
-            Community community = communityOpt.get();
-            boolean removed = community.getAdminIds().remove(userId);
-            if (removed) {
-                communityRepository.save(community);
-                return true;
+        Query adminQuery = new Query(where("communityId").is(communityId).and("userId").is(userId).and("role").is(CommunityRole.ADMIN));
+        // Takes the admin off the count first, and only while another admin remains, so two
+        // concurrent demotions cannot both pass a check made before either of them wrote
+        long reserved = mongoTemplate.updateFirst(new Query(where("_id").is(communityId).and("adminCount").gt(1)),
+                new Update().inc("adminCount", -1), Community.class).getModifiedCount();
+        if (reserved == 0) {
+            if (!mongoTemplate.exists(adminQuery, CommunityMembership.class)) {
+                return false;
             }
+            throw new BadRequestException("Cannot remove the last admin of a community");
         }
-        return false;
+
+        CommunityMembership demoted = mongoTemplate.findAndModify(adminQuery,
+                new Update().set("role", CommunityRole.MEMBER),
+                CommunityMembership.class);
+        if (demoted == null) {
+            // Not an admin after all; give the count back
+            incrementCounts(communityId, 0, 1);
+            return false;
+        }
+        evictMembership(communityId, userId);
+        return true;
     }
 
     @Override
     public List<Community> getCommunitiesByMember(String userId) {
-        return communityRepository.findByMemberIdsContaining(userId);
+        return findCommunities(membershipRepository.findByUserId(userId));
     }
     
     @Override
     public Page<Community> getCommunitiesByMember(String userId, Pageable pageable) {
-        return communityRepository.findByMemberIdsContaining(userId, pageable);
+        Page<CommunityMembership> memberships = membershipRepository.findByUserId(userId, newestFirst(pageable));
+        return new PageImpl<>(findCommunities(memberships.getContent()), pageable, memberships.getTotalElements());
     }
 
     @Override
     public List<Community> getCommunitiesByAdmin(String userId) {
-        return communityRepository.findByAdminIdsContaining(userId);
+        return findCommunities(membershipRepository.findByUserIdAndRole(userId, CommunityRole.ADMIN));
     }
     
     @Override
     public Page<Community> getCommunitiesByAdmin(String userId, Pageable pageable) {
-        return communityRepository.findByAdminIdsContaining(userId, pageable);
+        Page<CommunityMembership> memberships = membershipRepository.findByUserIdAndRole(
+                userId, CommunityRole.ADMIN, newestFirst(pageable));
+        return new PageImpl<>(findCommunities(memberships.getContent()), pageable, memberships.getTotalElements());
     }
 
     @Override
@@ -193,32 +293,128 @@ public class CommunityServiceImpl implements CommunityService {
     }
     
     @Override
-    public List<String> getCommunityMembers(String communityId) {
-        Optional<Community> communityOpt = communityRepository.findById(communityId);
-        return communityOpt.map(community -> new ArrayList<>(community.getMemberIds())).orElse(new ArrayList<>());
+    public PaginatedResponse<String> getCommunityMembers(String communityId, String cursor, int limit) {
+        if (cursor != null && !ObjectId.isValid(cursor)) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+        long total = getCommunityById(communityId).map(Community::getMemberCount).orElse(0L);
+
+        // Fetch one extra membership to know whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<CommunityMembership> memberships = cursor == null
+                ? membershipRepository.findByCommunityIdOrderByIdDesc(communityId, pageable)
+                : membershipRepository.findByCommunityIdAndIdLessThanOrderByIdDesc(communityId, cursor, pageable);
+
+        boolean hasMore = memberships.size() > limit;
+        List<CommunityMembership> page = hasMore ? memberships.subList(0, limit) : memberships;
+        String nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return PaginatedResponse.cursor(
+                page.stream().map(CommunityMembership::getUserId).collect(Collectors.toList()),
+                limit, total, nextCursor);
     }
     
     @Override
     public List<String> getCommunityAdmins(String communityId) {
-        Optional<Community> communityOpt = communityRepository.findById(communityId);
-        return communityOpt.map(community -> new ArrayList<>(community.getAdminIds())).orElse(new ArrayList<>());
+        return membershipRepository.findByCommunityIdAndRole(communityId, CommunityRole.ADMIN).stream()
+                .map(CommunityMembership::getUserId)
+                .collect(Collectors.toList());
     }
     
     @Override
     public boolean isAdmin(String communityId, String userId) {
-        Optional<Community> community = communityRepository.findById(communityId);
-        if (community.isPresent()) {
-            return community.get().getAdminIds().contains(userId);
-        }
-        return false;
+        return roleOf(communityId, userId).filter(role -> role == CommunityRole.ADMIN).isPresent();
     }
     
     @Override
     public boolean isMember(String communityId, String userId) {
-        Optional<Community> community = communityRepository.findById(communityId);
-        if (community.isPresent()) {
-            return community.get().getMemberIds().contains(userId);
+        return roleOf(communityId, userId).isPresent();
+    }
+
+    /**
+     * Role of the user in the community, read from the unique membership index and remembered
+     * for the rest of the request. Authorization reads the database rather than a shared cache,
+     * so a demotion takes effect on the next request.
+     */
+    private Optional<CommunityRole> roleOf(String communityId, String userId) {
+        return RequestMemo.get(roleKey(communityId, userId), () -> {
+            Query query = membershipQuery(communityId, userId);
+            query.fields().include("role").exclude("_id");
+            return Optional.ofNullable(mongoTemplate.findOne(query, CommunityMembership.class))
+                    .map(CommunityMembership::getRole);
+        });
+    }
+
+    private String roleKey(String communityId, String userId) {
+        return "communityRole:" + communityId + ":" + userId;
+    }
+
+    @Override
+    public void markMembership(List<Community> communities, String userId) {
+        if (userId == null || communities.isEmpty()) {
+            return;
+        }
+        Map<String, CommunityRole> roles = membershipRepository.findByUserIdAndCommunityIdIn(userId,
+                        communities.stream().map(Community::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(CommunityMembership::getCommunityId, CommunityMembership::getRole));
+        for (Community community : communities) {
+            CommunityRole role = roles.get(community.getId());
+            community.setMember(role != null);
+            community.setAdmin(role == CommunityRole.ADMIN);
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(JOIN_RETRY_DELAY_MS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while joining a community", e);
+        }
+    }
+
+    private Query membershipQuery(String communityId, String userId) {
+        return new Query(where("communityId").is(communityId).and("userId").is(userId));
+    }
+
+    /**
+     * @return false if the community does not exist
+     */
+    private boolean incrementCounts(String communityId, long members, long admins) {
+        return mongoTemplate.updateFirst(new Query(where("_id").is(communityId)),
+                new Update().inc("memberCount", members).inc("adminCount", admins),
+                Community.class).getMatchedCount() > 0;
+    }
+
+    private String findUsername(String userId) {
+        Query query = new Query(where("_id").is(userId));
+        query.fields().include("username");
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + userId);
         }
-        return false;
+        return user.getUsername();
+    }
+
+    private Pageable newestFirst(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    /**
+     * Loads the communities of the given memberships with one $in query, in membership order
+     */
+    private List<Community> findCommunities(List<CommunityMembership> memberships) {
+        Map<String, Community> byId = communityRepository.findAllById(memberships.stream()
+                        .map(CommunityMembership::getCommunityId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Community::getId, Function.identity()));
+        return memberships.stream()
+                .map(membership -> byId.get(membership.getCommunityId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private void evictMembership(String communityId, String userId) {
+        communityCache.evict(communityId);
+        RequestMemo.forget(roleKey(communityId, userId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.FriendAdjacency;
+import com.example.demo.service.FriendGraphService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@RequiredArgsConstructor
+public class FriendGraphServiceImpl implements FriendGraphService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean addFriendship(String userId1, String userId2) {
+        boolean added = addEdge(userId1, userId2);
+        return addEdge(userId2, userId1) || added;
+    }
+
+    @Override
+    public Set<String> removeUser(String userId) {
+        Set<String> friendIds = getFriendIds(userId);
+        if (!friendIds.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    new Query(where("_id").in(friendIds).and("friendIds").is(userId)),
+                    new Update().pull("friendIds", userId)
+                            .inc("friendCount", -1)
+                            .set("updatedAt", LocalDateTime.now()),
+                    FriendAdjacency.class);
+        }
+        mongoTemplate.remove(new Query(where("_id").is(userId)), FriendAdjacency.class);
+        return friendIds;
+    }
+
+    @Override
+    public boolean areFriends(String userId1, String userId2) {
+        return mongoTemplate.exists(
+                new Query(where("_id").is(userId1).and("friendIds").is(userId2)),
+                FriendAdjacency.class);
+    }
+
+    @Override
+    public Set<String> getFriendIds(String userId) {
+        FriendAdjacency adjacency = mongoTemplate.findById(userId, FriendAdjacency.class);
+        return adjacency != null && adjacency.getFriendIds() != null
+                ? adjacency.getFriendIds()
+                : new HashSet<>();
+    }
+
+    @Override
+    public Set<String> getFriendIdsAmong(String userId, Collection<String> candidateIds) {
+        Set<String> result = new HashSet<>();
+        if (candidateIds.isEmpty()) {
+            return result;
+        }
+
+        // Intersect on the server so only the matching ids come back, not the whole friend list
+        List<String> candidates = new ArrayList<>(candidateIds);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(where("_id").is(userId)),
+                context -> new Document("$project", new Document("friendIds",
+                        new Document("$setIntersection", List.of("$friendIds", candidates)))));
+
+        Document adjacency = mongoTemplate.aggregate(aggregation, "friend_adjacency", Document.class)
+                .getUniqueMappedResult();
+        if (adjacency != null && adjacency.getList("friendIds", String.class) != null) {
+            result.addAll(adjacency.getList("friendIds", String.class));
+        }
+        return result;
+    }
+
+    @Override
+    public long countFriends(String userId) {
+        Query query = new Query(where("_id").is(userId));
+        query.fields().include("friendCount");
+        FriendAdjacency adjacency = mongoTemplate.findOne(query, FriendAdjacency.class);
+        return adjacency != null ? adjacency.getFriendCount() : 0;
+    }
+
+    private boolean addEdge(String userId, String friendId) {
+        // Only matches while the friend is missing, so the count is incremented exactly once.
+        // When the edge already exists the upsert tries to insert a second document with the
+        // same _id and fails, which leaves everything untouched.
+        Query query = new Query(where("_id").is(userId).and("friendIds").ne(friendId));
+        Update update = new Update()
+                .addToSet("friendIds", friendId)
+                .inc("friendCount", 1)
+                .set("updatedAt", LocalDateTime.now());
+        try {
+            mongoTemplate.upsert(query, update, FriendAdjacency.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Edge already present
+            return false;
+        }
+    }
+}
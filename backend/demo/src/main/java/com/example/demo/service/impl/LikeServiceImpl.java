@@ -2,82 +2,191 @@ package com.example.demo.service.impl;
 
 
 import com.example.demo.dto.LikeDTO;
+import com.example.demo.event.PostLikedEvent;
 import com.example.demo.model.Like;
 import com.example.demo.model.User;
 import com.example.demo.repository.LikeRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.UserPrincipal;
 import com.example.demo.service.LikeService;
-import com.example.demo.service.NotificationService;
-import com.example.demo.service.UserService;
+import com.example.demo.service.PostStatsService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class LikeServiceImpl implements LikeService {
 
+    private static final int FLUSH_BATCH_SIZE = 500;
+
     private final LikeRepository likeRepository;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher events;
     private final UserRepository userRepository;
-
+    private final PostStatsService postStatsService;
+    private final LikeWriteBuffer likeBuffer;
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Toggles beyond this are written by the request that adds them instead of waiting for the flush
+    @Value("${skillhive.likes.max-pending:10000}")
+    private int maxPending;
+
+    /**
+     * Records the like; it is written by the next flush. Liking a post twice is harmless, and
+     * a like undone before the flush is never written at all.
+     */
     @Override
     public LikeDTO likePost(String postId) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String userId = userPrincipal.getId();
-        // Check if user already liked the post
-        Optional<Like> existingLike = likeRepository.findByPostIdAndUserId(postId, userId);
-
-        if (existingLike.isPresent()) {
-            return mapToDTO(existingLike.get());
-        }
+        likeBuffer.record(postId, userId, userPrincipal.getUsername(), true);
+        flushIfFull();
 
-        Like like = Like.builder()
+        return LikeDTO.builder()
                 .postId(postId)
                 .userId(userId)
                 .createdAt(LocalDateTime.now())
                 .build();
-
-        Like savedLike = likeRepository.save(like);
-
-        // Notify post owner (assuming there's a way to get post owner ID and user display name)
-        String postOwnerId = "post-owner-id"; // This should be fetched from the Post service
-        String userDisplayName = "User Name"; // This should be fetched from the User service
-
-        // Send notification only if liker is not the post owner
-        if (!userId.equals(postOwnerId)) {
-            notificationService.createNotification(
-                    postOwnerId,
-                    userId,
-                    userDisplayName,
-                    "LIKE",
-                    postId,
-                    userDisplayName + " liked your post"
-            );
-        }
-
-        return mapToDTO(savedLike);
     }
 
     @Override
     public void unlikePost(String postId) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        String userId = userPrincipal.getId();
-
-        likeRepository.deleteByPostIdAndUserId(postId, userId);
+        likeBuffer.record(postId, userPrincipal.getId(), userPrincipal.getUsername(), false);
+        flushIfFull();
     }
 
     @Override
     public boolean hasUserLiked(String postId) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String userId = userPrincipal.getId();
-        return likeRepository.findByPostIdAndUserId(postId, userId).isPresent();
+        Boolean pending = likeBuffer.pendingState(postId, userId);
+        return pending != null ? pending : likeRepository.existsByPostIdAndUserId(postId, userId);
+    }
+
+    /**
+     * Writes the buffered toggles in batches. Each batch is compared with the stored likes, so
+     * only real changes are written, counted and announced; a batch that fails stays buffered
+     * and is retried by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${skillhive.likes.flush-interval-ms:1000}")
+    public synchronized void flushPendingLikes() {
+        List<Map.Entry<LikeWriteBuffer.Key, LikeWriteBuffer.Toggle>> toggles = new ArrayList<>(likeBuffer.snapshot().entrySet());
+        for (int from = 0; from < toggles.size(); from += FLUSH_BATCH_SIZE) {
+            List<Map.Entry<LikeWriteBuffer.Key, LikeWriteBuffer.Toggle>> batch =
+                    toggles.subList(from, Math.min(from + FLUSH_BATCH_SIZE, toggles.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeBatch(batch));
+                likeBuffer.acknowledge(batch);
+            } catch (RuntimeException e) {
+                log.error("Could not write {} buffered likes, retrying with the next flush", batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flushPendingLikes();
+    }
+
+    // Called by account deletion so buffered likes are not written after the user's likes were removed
+    @Override
+    public void discardPendingLikes(String userId) {
+        likeBuffer.discardUser(userId);
+    }
+
+    private void flushIfFull() {
+        if (likeBuffer.size() >= maxPending) {
+            flushPendingLikes();
+        }
+    }
+
+    private void writeBatch(List<Map.Entry<LikeWriteBuffer.Key, LikeWriteBuffer.Toggle>> batch) {
+        Set<LikeWriteBuffer.Key> stored = findStoredLikes(batch.stream().map(Map.Entry::getKey).toList());
+        // Toggles of users that were disabled or removed since are dropped, so they cannot
+        // bring back likes an account deletion already cleared, e.g. from another instance
+        Set<String> activeUsers = findActiveUsers(batch.stream().map(entry -> entry.getKey().userId()).collect(Collectors.toSet()));
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Like.class);
+        Map<String, Long> deltas = new HashMap<>();
+        List<PostLikedEvent> likedEvents = new ArrayList<>();
+
+        // Notify post owner (assuming there's a way to get post owner ID)
+        String postOwnerId = "post-owner-id"; // This should be fetched from the Post service
+
+        for (Map.Entry<LikeWriteBuffer.Key, LikeWriteBuffer.Toggle> entry : batch) {
+            LikeWriteBuffer.Key key = entry.getKey();
+            LikeWriteBuffer.Toggle toggle = entry.getValue();
+            if (!activeUsers.contains(key.userId())) {
+                continue;
+            }
+            boolean isStored = stored.contains(key);
+            if (toggle.liked() && !isStored) {
+                // The unique {postId, userId} index keeps a concurrent writer from adding a second like
+                ops.upsert(likeQuery(key), new Update().setOnInsert("createdAt", toggle.at()));
+                deltas.merge(key.postId(), 1L, Long::sum);
+                // The post owner is notified unless they liked their own post
+                likedEvents.add(new PostLikedEvent(key.postId(), postOwnerId, key.userId(), toggle.userName()));
+            } else if (!toggle.liked() && isStored) {
+                ops.remove(likeQuery(key));
+                deltas.merge(key.postId(), -1L, Long::sum);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        ops.execute();
+        deltas.forEach((postId, delta) -> {
+            if (delta != 0) {
+                postStatsService.addLikes(postId, delta);
+            }
+        });
+        likedEvents.forEach(events::publishEvent);
+    }
+
+    private Set<LikeWriteBuffer.Key> findStoredLikes(List<LikeWriteBuffer.Key> keys) {
+        Query query = new Query(new Criteria().orOperator(keys.stream()
+                .map(key -> where("postId").is(key.postId()).and("userId").is(key.userId()))
+                .toArray(Criteria[]::new)));
+        query.fields().include("postId", "userId");
+        return mongoTemplate.find(query, Like.class).stream()
+                .map(like -> new LikeWriteBuffer.Key(like.getPostId(), like.getUserId()))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> findActiveUsers(Set<String> userIds) {
+        Query query = new Query(where("_id").in(userIds).and("enabled").ne(false));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Query likeQuery(LikeWriteBuffer.Key key) {
+        return new Query(where("postId").is(key.postId()).and("userId").is(key.userId()));
     }
 
     @Override
@@ -98,7 +207,7 @@ public class LikeServiceImpl implements LikeService {
 
     @Override
     public long getLikeCount(String postId) {
-        return likeRepository.countByPostId(postId);
+        return postStatsService.getStats(postId).getLikeCount();
     }
 
     private LikeDTO mapToDTO(Like like) {
@@ -0,0 +1,61 @@
+package com.example.demo.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds like and unlike toggles until they are written. Only the latest toggle per post and
+ * user is kept, so a like followed by an unlike before the next flush writes nothing. Entries
+ * stay visible until their write is acknowledged, so reads never fall into the gap between
+ * taking a toggle and storing it.
+ */
+@Component
+class LikeWriteBuffer {
+
+    record Key(String postId, String userId) {
+    }
+
+    record Toggle(boolean liked, String userName, LocalDateTime at) {
+    }
+
+    private final ConcurrentHashMap<Key, Toggle> pending = new ConcurrentHashMap<>();
+
+    void record(String postId, String userId, String userName, boolean liked) {
+        pending.put(new Key(postId, userId), new Toggle(liked, userName, LocalDateTime.now()));
+    }
+
+    /**
+     * @return the state the user will have once pending toggles are written, or null if there are none
+     */
+    Boolean pendingState(String postId, String userId) {
+        Toggle toggle = pending.get(new Key(postId, userId));
+        return toggle != null ? toggle.liked() : null;
+    }
+
+    Map<Key, Toggle> snapshot() {
+        return new HashMap<>(pending);
+    }
+
+    /**
+     * Drops the written toggles, except those replaced by a newer toggle in the meantime
+     */
+    void acknowledge(Collection<Map.Entry<Key, Toggle>> written) {
+        written.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Drops every pending toggle of the user
+     */
+    void discardUser(String userId) {
+        pending.keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    int size() {
+        return pending.size();
+    }
+}
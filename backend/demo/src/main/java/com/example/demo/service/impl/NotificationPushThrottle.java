@@ -0,0 +1,56 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.LocalCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits pushes of a grouped notification to one per interval. The first update of a group is
+ * pushed right away; later updates within the interval are collected and pushed once, with the
+ * latest state, when the interval is flushed.
+ */
+@Component
+class NotificationPushThrottle {
+
+    @Value("${skillhive.notifications.push-interval-ms:10000}")
+    private long pushIntervalMs;
+
+    @Value("${skillhive.notifications.push-throttle-size:100000}")
+    private int maxKeys;
+
+    private LocalCache<String, Boolean> recentlyPushed;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        recentlyPushed = new LocalCache<>(maxKeys, pushIntervalMs);
+    }
+
+    /**
+     * @return true if the update should be pushed now, false if it was deferred to the next flush
+     */
+    boolean tryAcquire(String groupKey) {
+        if (recentlyPushed.get(groupKey) == null) {
+            recentlyPushed.put(groupKey, true);
+            return true;
+        }
+        pending.add(groupKey);
+        return false;
+    }
+
+    /**
+     * Takes the groups whose pushes were deferred since the last call
+     */
+    List<String> drainPending() {
+        List<String> keys = new ArrayList<>(pending);
+        pending.removeAll(keys);
+        keys.forEach(key -> recentlyPushed.put(key, true));
+        return keys;
+    }
+}
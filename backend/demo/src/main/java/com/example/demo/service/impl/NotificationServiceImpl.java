@@ -1,28 +1,54 @@
 package com.example.demo.service.impl;
+import com.example.demo.cache.UnreadCounter;
 import com.example.demo.dto.NotificationDTO;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.exception.UnauthorizedException;
 import com.example.demo.model.Notification;
+import com.example.demo.repository.ArchivedNotificationRepository;
 import com.example.demo.repository.NotificationRepository;
 import com.example.demo.security.UserPrincipal;
 import com.example.demo.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int SAMPLE_ACTORS = 3;
+    private static final int MAX_BULK_IDS = 500;
+
     private final NotificationRepository notificationRepository;
+    private final ArchivedNotificationRepository archivedNotificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final UnreadCounter unreadCounter;
+    private final MongoTemplate mongoTemplate;
+    private final NotificationPushThrottle pushThrottle;
+
+    @Value("${skillhive.notifications.group-window-ms:3600000}")
+    private long groupWindowMs;
 
 
     @Override
@@ -48,10 +74,132 @@ public class NotificationServiceImpl implements NotificationService {
                 "/queue/notifications",
                 notificationDTO
         );
+        adjustUnreadCount(userId, 1);
 
         return notificationDTO;
     }
 
+    @Override
+    public void createNotifications(Collection<String> userIds, String actorId, String actorName, String type,
+                                    String referenceId, String content) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = userIds.stream()
+                .map(userId -> Notification.builder()
+                        .userId(userId)
+                        .actorId(actorId)
+                        .actorName(actorName)
+                        .type(type)
+                        .referenceId(referenceId)
+                        .content(content)
+                        .read(false)
+                        .createdAt(now)
+                        .build())
+                .collect(Collectors.toList());
+
+        for (int from = 0; from < notifications.size(); from += INSERT_BATCH_SIZE) {
+            // One insertMany per batch, then the pushes for the saved batch
+            List<Notification> saved = notificationRepository.insert(
+                    notifications.subList(from, Math.min(from + INSERT_BATCH_SIZE, notifications.size())));
+            for (Notification notification : saved) {
+                messagingTemplate.convertAndSendToUser(
+                        notification.getUserId(),
+                        "/queue/notifications",
+                        mapToDTO(notification)
+                );
+                adjustUnreadCount(notification.getUserId(), 1);
+            }
+        }
+    }
+
+    @Override
+    public void createGroupedNotification(String userId, String actorId, String actorName, String type,
+                                          String referenceId, String action) {
+        // Fixed windows keep the key deterministic, so concurrent updates meet on the unique index
+        long window = System.currentTimeMillis() / groupWindowMs;
+        String groupKey = userId + ":" + type + ":" + referenceId + ":" + window;
+        LocalDateTime now = LocalDateTime.now();
+
+        Query query = new Query(where("groupKey").is(groupKey));
+        // Only an actor not yet in the group counts, so repeated activity cannot inflate actorCount
+        Query newActor = new Query(where("groupKey").is(groupKey).and("actorIds").ne(actorId));
+        Update update = new Update()
+                .setOnInsert("userId", userId)
+                .setOnInsert("type", type)
+                .setOnInsert("referenceId", referenceId)
+                .setOnInsert("action", action)
+                .set("actorId", actorId)
+                .set("actorName", actorName)
+                .set("content", actorName + " " + action)
+                .set("read", false)
+                .set("createdAt", now)
+                .addToSet("actorIds", actorId)
+                .inc("actorCount", 1);
+        update.push("sampleActors").slice(-SAMPLE_ACTORS).each(new Notification.Actor(actorId, actorName));
+        // The previous state tells whether the group just became unread
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(false);
+
+        Notification previous;
+        try {
+            previous = mongoTemplate.findAndModify(newActor, update, options, Notification.class);
+        } catch (DuplicateKeyException e) {
+            // The group exists already: either another update created it first, or the actor is in it
+            previous = mongoTemplate.findAndModify(newActor, update, FindAndModifyOptions.options().returnNew(false), Notification.class);
+            if (previous == null) {
+                return;
+            }
+        }
+
+        if (pushThrottle.tryAcquire(groupKey)) {
+            Notification notification = mongoTemplate.findOne(query, Notification.class);
+            if (notification != null) {
+                push(notification);
+            }
+        }
+        if (previous == null || previous.isRead()) {
+            adjustUnreadCount(userId, 1);
+        }
+    }
+
+    /**
+     * Pushes the latest state of the groups whose updates were held back by the throttle
+     */
+    @Scheduled(fixedDelayString = "${skillhive.notifications.push-interval-ms:10000}")
+    public void flushThrottledPushes() {
+        List<String> groupKeys = pushThrottle.drainPending();
+        for (int from = 0; from < groupKeys.size(); from += INSERT_BATCH_SIZE) {
+            Query query = new Query(where("groupKey").in(groupKeys.subList(from, Math.min(from + INSERT_BATCH_SIZE, groupKeys.size()))));
+            mongoTemplate.find(query, Notification.class).forEach(this::push);
+        }
+    }
+
+    /**
+     * Moves the unread counter and pushes the new count, so clients never have to poll for it
+     */
+    private void adjustUnreadCount(String userId, long delta) {
+        Long count = unreadCounter.add(userId, delta);
+        if (count == null) {
+            // Not known yet; the change is already in the database, so seeding picks it up
+            count = getUnreadCountWS(userId);
+        }
+        pushUnreadCount(userId, count);
+    }
+
+    private void pushUnreadCount(String userId, long count) {
+        messagingTemplate.convertAndSendToUser(
+                userId,
+                "/queue/notifications/count",
+                Map.of("count", count)
+        );
+    }
+
+    private void push(Notification notification) {
+        messagingTemplate.convertAndSendToUser(
+                notification.getUserId(),
+                "/queue/notifications",
+                mapToDTO(notification)
+        );
+    }
+
     @Override
     public Page<NotificationDTO> getUserNotifications(Pageable pageable) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -60,6 +208,25 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationsPage.map(this::mapToDTO);
     }
 
+    @Override
+    public Page<NotificationDTO> getArchivedNotifications(Pageable pageable) {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return archivedNotificationRepository.findByUserIdOrderByCreatedAtDesc(userPrincipal.getId(), pageable)
+                .map(notification -> NotificationDTO.builder()
+                        .id(notification.getId())
+                        .userId(notification.getUserId())
+                        .actorId(notification.getActorId())
+                        .actorName(notification.getActorName())
+                        .type(notification.getType())
+                        .referenceId(notification.getReferenceId())
+                        .content(summarize(notification.getContent(), notification.getActorName(),
+                                notification.getActorCount(), notification.getAction()))
+                        .read(true)
+                        .createdAt(notification.getCreatedAt())
+                        .actorCount(Math.max(notification.getActorCount(), 1))
+                        .build());
+    }
+
     @Override
     public List<NotificationDTO> getUnreadNotifications() {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -81,16 +248,7 @@ public class NotificationServiceImpl implements NotificationService {
             throw new UnauthorizedException("You cannot mark someone else's notification as read");
         }
 
-        notification.setRead(true);
-        notificationRepository.save(notification);
-
-        // Send update via WebSocket that notification has been read
-        NotificationDTO updatedNotification = mapToDTO(notification);
-        messagingTemplate.convertAndSendToUser(
-                userId,
-                "/queue/notifications/updates",
-                updatedNotification
-        );
+        markRead(notification);
     }
 
     @Override
@@ -104,40 +262,79 @@ public class NotificationServiceImpl implements NotificationService {
             throw new UnauthorizedException("You cannot mark someone else's notification as read");
         }
 
+        markRead(notification);
+    }
+
+    private void markRead(Notification notification) {
+        // Conditional on read:false, so concurrent marks take the notification off the count once
+        long modified = mongoTemplate.updateFirst(
+                new Query(where("_id").is(notification.getId()).and("read").is(false)),
+                new Update().set("read", true),
+                Notification.class).getModifiedCount();
         notification.setRead(true);
-        notificationRepository.save(notification);
 
         // Send update via WebSocket that notification has been read
         NotificationDTO updatedNotification = mapToDTO(notification);
         messagingTemplate.convertAndSendToUser(
-                userId,
+                notification.getUserId(),
                 "/queue/notifications/updates",
                 updatedNotification
         );
+        if (modified > 0) {
+            adjustUnreadCount(notification.getUserId(), -1);
+        }
     }
 
     @Override
-    public void markAllAsRead() {
+    public long markAsReadWS(Collection<String> notificationIds, String userId) {  // for WebSocket
+        if (notificationIds.size() > MAX_BULK_IDS) {
+            throw new BadRequestException("At most " + MAX_BULK_IDS + " notifications can be marked at once");
+        }
+        List<ObjectId> ids = notificationIds.stream()
+                .filter(ObjectId::isValid)
+                .map(ObjectId::new)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        long modified = mongoTemplate.updateMulti(
+                new Query(where("_id").in(ids).and("userId").is(userId).and("read").is(false)),
+                new Update().set("read", true),
+                Notification.class).getModifiedCount();
+        if (modified > 0) {
+            adjustUnreadCount(userId, -modified);
+        }
+        return modified;
+    }
+
+    @Override
+    public long markAllAsRead() {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String userId = userPrincipal.getId();
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndReadOrderByCreatedAtDesc(userId, false);
 
-        unreadNotifications.forEach(notification -> notification.setRead(true));
-        List<Notification> savedNotifications = notificationRepository.saveAll(unreadNotifications);
+        // One updateMany on the server instead of loading and saving every unread notification
+        long modified = mongoTemplate.updateMulti(
+                new Query(where("userId").is(userId).and("read").is(false)),
+                new Update().set("read", true),
+                Notification.class).getModifiedCount();
 
+        unreadCounter.reset(userId);
         // Send update via WebSocket that all notifications have been read
-        if (!savedNotifications.isEmpty()) {
+        if (modified > 0) {
+            pushUnreadCount(userId, 0);
             messagingTemplate.convertAndSendToUser(
                     userId,
                     "/queue/notifications/all-read",
                     true
             );
         }
+        return modified;
     }
 
     @Override
     public long getUnreadCountWS(String userId) {
-        return notificationRepository.countByUserIdAndRead(userId, false);
+        return unreadCounter.get(userId, () -> notificationRepository.countByUserIdAndRead(userId, false));
     }
 
 
@@ -145,7 +342,7 @@ public class NotificationServiceImpl implements NotificationService {
     public long getUnreadCountAPI() {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String userId = userPrincipal.getId();
-        return notificationRepository.countByUserIdAndRead(userId, false);
+        return getUnreadCountWS(userId);
     }
 
     private NotificationDTO mapToDTO(Notification notification) {
@@ -156,11 +353,21 @@ public class NotificationServiceImpl implements NotificationService {
                 .actorName(notification.getActorName())
                 .type(notification.getType())
                 .referenceId(notification.getReferenceId())
-                .content(notification.getContent())
+                .content(summarize(notification.getContent(), notification.getActorName(),
+                        notification.getActorCount(), notification.getAction()))
                 .read(notification.isRead())
                 .createdAt(notification.getCreatedAt())
+                .actorCount(Math.max(notification.getActorCount(), 1))
+                .sampleActors(notification.getSampleActors())
                 .build();
     }
 
-
-}
\ No newline at end of file
+    // "Alice and 12 others liked your post" for groups, the stored content otherwise
+    private String summarize(String content, String actorName, int actorCount, String action) {
+        int others = actorCount - 1;
+        if (action == null || others <= 0) {
+            return content;
+        }
+        return actorName + " and " + others + (others == 1 ? " other " : " others ") + action;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.PostStats;
+import com.example.demo.service.PostStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@RequiredArgsConstructor
+public class PostStatsServiceImpl implements PostStatsService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void addLikes(String postId, long delta) {
+        increment(postId, "likeCount", delta);
+    }
+
+    @Override
+    public void addComments(String postId, long delta) {
+        increment(postId, "commentCount", delta);
+    }
+
+    @Override
+    public PostStats getStats(String postId) {
+        PostStats stats = mongoTemplate.findById(postId, PostStats.class);
+        return stats != null ? stats : PostStats.empty(postId);
+    }
+
+    /**
+     * Reads the counters of all the posts in one query. Posts nobody has liked or commented on
+     * yet have no document and come back with zero counts.
+     */
+    @Override
+    public Map<String, PostStats> getStats(Collection<String> postIds) {
+        Map<String, PostStats> result = new LinkedHashMap<>();
+        postIds.forEach(postId -> result.put(postId, PostStats.empty(postId)));
+        if (!postIds.isEmpty()) {
+            mongoTemplate.find(new Query(where("_id").in(postIds)), PostStats.class)
+                    .forEach(stats -> result.put(stats.getPostId(), stats));
+        }
+        return result;
+    }
+
+    // The upsert creates the document on the first like or comment of a post. It runs after the
+    // caller's transaction commits, so concurrent writers of a popular post never conflict on its
+    // counters; PostStatsReconciliationJob repairs an increment lost in between.
+    private void increment(String postId, String counter, long delta) {
+        AfterCommit.run(() -> mongoTemplate.upsert(new Query(where("_id").is(postId)),
+                new Update().inc(counter, delta), PostStats.class));
+    }
+}
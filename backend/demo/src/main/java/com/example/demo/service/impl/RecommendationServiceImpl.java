@@ -0,0 +1,290 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.Community;
+import com.example.demo.model.CommunityMembership;
+import com.example.demo.model.FriendAdjacency;
+import com.example.demo.model.User;
+import com.example.demo.model.UserRecommendations;
+import com.example.demo.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@RequiredArgsConstructor
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private static final double MUTUAL_FRIEND_WEIGHT = 3.0;
+    private static final double SHARED_COMMUNITY_WEIGHT = 2.0;
+    private static final double SHARED_SKILL_WEIGHT = 1.0;
+
+    // Candidates kept per user before skills are loaded for the final ranking
+    private static final int SHORTLIST_FACTOR = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skillhive.recommendations.top-k:20}")
+    private int topK;
+
+    // Larger communities are too broad to say anything about who knows whom
+    @Value("${skillhive.recommendations.max-community-size:500}")
+    private int maxCommunitySize;
+
+    @Override
+    public List<UserRecommendations.Suggestion> getSuggestions(String userId, int limit) {
+        UserRecommendations recommendations = mongoTemplate.findById(userId, UserRecommendations.class);
+        if (recommendations == null || recommendations.getSuggestions() == null) {
+            return List.of();
+        }
+        List<UserRecommendations.Suggestion> suggestions = recommendations.getSuggestions();
+        return suggestions.subList(0, Math.min(limit, suggestions.size()));
+    }
+
+    @Override
+    public void recompute(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, Set<String>> friends = loadFriendIds(userIds);
+        Set<String> friendsOfPartition = friends.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        Map<String, Set<String>> friendsOfFriends = loadFriendIds(friendsOfPartition);
+        Map<String, Set<String>> following = loadFollowingIds(userIds);
+        Map<String, Set<String>> communities = new HashMap<>();
+        Map<String, Set<String>> communityMembers = loadCommunities(userIds, communities);
+
+        Map<String, List<Candidate>> shortlists = new HashMap<>();
+        Set<String> profileIds = new HashSet<>(userIds);
+        for (String userId : userIds) {
+            List<Candidate> shortlist = shortlist(userId,
+                    friends.getOrDefault(userId, Set.of()),
+                    following.getOrDefault(userId, Set.of()),
+                    communities.getOrDefault(userId, Set.of()),
+                    friendsOfFriends,
+                    communityMembers);
+            shortlists.put(userId, shortlist);
+            shortlist.forEach(candidate -> profileIds.add(candidate.userId));
+        }
+
+        Map<String, User> profiles = loadProfiles(profileIds);
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserRecommendations.class);
+        for (String userId : userIds) {
+            List<UserRecommendations.Suggestion> suggestions = rank(profiles.get(userId), shortlists.get(userId), profiles);
+            ops.upsert(new Query(where("_id").is(userId)), new Update()
+                    .set("suggestions", suggestions)
+                    .set("computedAt", now));
+        }
+        ops.execute();
+    }
+
+    /**
+     * Scores candidates by mutual friends and shared small communities and keeps the best ones
+     */
+    private List<Candidate> shortlist(String userId, Set<String> friendIds, Set<String> followingIds,
+                                      Set<String> communityIds, Map<String, Set<String>> friendsOfFriends,
+                                      Map<String, Set<String>> communityMembers) {
+        Map<String, Candidate> candidates = new HashMap<>();
+        for (String friendId : friendIds) {
+            for (String candidateId : friendsOfFriends.getOrDefault(friendId, Set.of())) {
+                if (isEligible(userId, candidateId, friendIds, followingIds)) {
+                    candidates.computeIfAbsent(candidateId, Candidate::new).mutualFriends++;
+                }
+            }
+        }
+        for (String communityId : communityIds) {
+            for (String candidateId : communityMembers.getOrDefault(communityId, Set.of())) {
+                if (isEligible(userId, candidateId, friendIds, followingIds)) {
+                    candidates.computeIfAbsent(candidateId, Candidate::new).sharedCommunities++;
+                }
+            }
+        }
+        return top(candidates.values(), topK * SHORTLIST_FACTOR, Candidate::partialScore);
+    }
+
+    private boolean isEligible(String userId, String candidateId, Set<String> friendIds, Set<String> followingIds) {
+        return !userId.equals(candidateId) && !friendIds.contains(candidateId) && !followingIds.contains(candidateId);
+    }
+
+    /**
+     * Adds skill overlap to the shortlisted candidates and returns the final top-K
+     */
+    private List<UserRecommendations.Suggestion> rank(User user, List<Candidate> shortlist, Map<String, User> profiles) {
+        Set<String> skills = normalizedSkills(user);
+        List<Candidate> candidates = new ArrayList<>();
+        for (Candidate candidate : shortlist) {
+            User profile = profiles.get(candidate.userId);
+            if (profile == null) {
+                // Deleted since the graph was read
+                continue;
+            }
+            Set<String> shared = normalizedSkills(profile);
+            shared.retainAll(skills);
+            candidate.sharedSkills = shared.size();
+            candidates.add(candidate);
+        }
+
+        return top(candidates, topK, Candidate::score).stream()
+                .map(candidate -> {
+                    User profile = profiles.get(candidate.userId);
+                    return new UserRecommendations.Suggestion(
+                            candidate.userId,
+                            profile.getUsername(),
+                            profile.getFirstName(),
+                            profile.getLastName(),
+                            profile.getProfilePicture(),
+                            candidate.score(),
+                            candidate.mutualFriends,
+                            candidate.sharedCommunities,
+                            candidate.sharedSkills);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private List<Candidate> top(Collection<Candidate> candidates, int k, ToDoubleFunction<Candidate> score) {
+        Comparator<Candidate> byScore = Comparator.comparingDouble(score);
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(byScore);
+        for (Candidate candidate : candidates) {
+            heap.offer(candidate);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<Candidate> result = new ArrayList<>(heap);
+        result.sort(byScore.reversed());
+        return result;
+    }
+
+    private Set<String> normalizedSkills(User user) {
+        if (user == null || user.getSkills() == null) {
+            return new HashSet<>();
+        }
+        return user.getSkills().stream()
+                .filter(skill -> skill != null && !skill.isBlank())
+                .map(skill -> skill.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    private Map<String, Set<String>> loadFriendIds(Collection<String> userIds) {
+        Map<String, Set<String>> result = new HashMap<>();
+        for (List<String> batch : batches(userIds)) {
+            Query query = new Query(where("_id").in(batch));
+            query.fields().include("friendIds");
+            mongoTemplate.find(query, FriendAdjacency.class)
+                    .forEach(adjacency -> result.put(adjacency.getUserId(), adjacency.getFriendIds()));
+        }
+        return result;
+    }
+
+    private Map<String, Set<String>> loadFollowingIds(Collection<String> userIds) {
+        Map<String, Set<String>> result = new HashMap<>();
+        for (List<String> batch : batches(userIds)) {
+            Query query = new Query(where("followerId").in(batch));
+            query.fields().include("followerId", "followingId");
+            mongoTemplate.find(query, Document.class, "follows")
+                    .forEach(edge -> result.computeIfAbsent(edge.getString("followerId"), id -> new HashSet<>())
+                            .add(edge.getString("followingId")));
+        }
+        return result;
+    }
+
+    /**
+     * Fills the communities of each user and returns the members of the communities small
+     * enough to be used as a signal
+     */
+    private Map<String, Set<String>> loadCommunities(List<String> userIds, Map<String, Set<String>> communitiesByUser) {
+        for (List<String> batch : batches(userIds)) {
+            Query query = new Query(where("userId").in(batch));
+            query.fields().include("communityId", "userId");
+            mongoTemplate.find(query, CommunityMembership.class)
+                    .forEach(membership -> communitiesByUser
+                            .computeIfAbsent(membership.getUserId(), id -> new HashSet<>())
+                            .add(membership.getCommunityId()));
+        }
+
+        Set<String> communityIds = communitiesByUser.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        Set<String> smallCommunities = new HashSet<>();
+        for (List<String> batch : batches(communityIds)) {
+            Query query = new Query(where("_id").in(batch).and("memberCount").lte(maxCommunitySize));
+            query.fields().include("_id");
+            mongoTemplate.find(query, Community.class)
+                    .forEach(community -> smallCommunities.add(community.getId()));
+        }
+
+        Map<String, Set<String>> members = new HashMap<>();
+        for (List<String> batch : batches(smallCommunities)) {
+            Query query = new Query(where("communityId").in(batch));
+            query.fields().include("communityId", "userId");
+            mongoTemplate.find(query, CommunityMembership.class)
+                    .forEach(membership -> members
+                            .computeIfAbsent(membership.getCommunityId(), id -> new HashSet<>())
+                            .add(membership.getUserId()));
+        }
+        return members;
+    }
+
+    private Map<String, User> loadProfiles(Collection<String> userIds) {
+        Map<String, User> result = new HashMap<>();
+        for (List<String> batch : batches(userIds)) {
+            Query query = new Query(where("_id").in(batch));
+            query.fields().include("username", "firstName", "lastName", "profilePicture", "skills");
+            mongoTemplate.find(query, User.class).forEach(user -> result.put(user.getId(), user));
+        }
+        return result;
+    }
+
+    private List<List<String>> batches(Collection<String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_BATCH_SIZE) {
+            batches.add(all.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, all.size())));
+        }
+        return batches;
+    }
+
+    private static class Candidate {
+        private final String userId;
+        private int mutualFriends;
+        private int sharedCommunities;
+        private int sharedSkills;
+
+        Candidate(String userId) {
+            this.userId = userId;
+        }
+
+        double partialScore() {
+            return MUTUAL_FRIEND_WEIGHT * mutualFriends + SHARED_COMMUNITY_WEIGHT * sharedCommunities;
+        }
+
+        double score() {
+            return partialScore() + SHARED_SKILL_WEIGHT * sharedSkills;
+        }
+    }
+}
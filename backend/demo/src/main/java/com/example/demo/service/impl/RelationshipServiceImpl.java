@@ -0,0 +1,70 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.RelationshipStatus;
+import com.example.demo.model.Follow;
+import com.example.demo.model.RequestStatus;
+import com.example.demo.repository.DbRefs;
+import com.example.demo.repository.FollowRepository;
+import com.example.demo.service.FriendGraphService;
+import com.example.demo.service.RelationshipService;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class RelationshipServiceImpl implements RelationshipService {
+
+    private final FollowRepository followRepository;
+    private final MongoTemplate mongoTemplate;
+    private final FriendGraphService friendGraphService;
+
+    @Override
+    public Map<String, RelationshipStatus> resolve(String viewerId, Collection<String> targetIds) {
+        Map<String, RelationshipStatus> result = new HashMap<>();
+        targetIds.forEach(id -> result.put(id, new RelationshipStatus()));
+        if (viewerId == null || targetIds.isEmpty() || !ObjectId.isValid(viewerId)) {
+            return result;
+        }
+
+        for (Follow follow : followRepository.findFollowingEdgesAmong(viewerId, targetIds)) {
+            result.get(follow.getFollowingId()).setFollowing(true);
+        }
+
+        for (String friendId : friendGraphService.getFriendIdsAmong(viewerId, targetIds)) {
+            result.get(friendId).setFriend(true);
+        }
+
+        ObjectId viewer = new ObjectId(viewerId);
+        List<ObjectId> targets = DbRefs.objectIds(targetIds);
+
+        // Friend requests still reference users through DBRefs, so they are queried on the
+        // raw collection to avoid resolving every referenced user
+        mongoTemplate.getCollection("friend_requests")
+                .find(Filters.and(
+                        Filters.eq("status", RequestStatus.PENDING.name()),
+                        Filters.or(
+                                Filters.and(Filters.eq("sender.$id", viewer), Filters.in("receiver.$id", targets)),
+                                Filters.and(Filters.eq("receiver.$id", viewer), Filters.in("sender.$id", targets)))))
+                .projection(Projections.include("sender", "receiver"))
+                .forEach(doc -> {
+                    String senderId = DbRefs.idOf(doc.get("sender"));
+                    String receiverId = DbRefs.idOf(doc.get("receiver"));
+                    if (viewerId.equals(senderId) && result.containsKey(receiverId)) {
+                        result.get(receiverId).setFriendRequestSent(true);
+                    } else if (viewerId.equals(receiverId) && result.containsKey(senderId)) {
+                        result.get(senderId).setFriendRequestReceived(true);
+                    }
+                });
+
+        return result;
+    }
+}
@@ -1,42 +1,74 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.TwoTierCache;
+import com.example.demo.cache.TwoTierCacheManager;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.exception.UserAlreadyExistsException;
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
+import com.example.demo.event.FriendRequestSentEvent;
+import com.example.demo.event.UserFollowedEvent;
+import com.example.demo.dto.PaginatedResponse;
 import com.example.demo.dto.SignupRequest;
 import com.example.demo.dto.UserRegistrationDto;
 import com.example.demo.dto.ProfileCompletionDto;
-import com.example.demo.service.NotificationService;
+import com.example.demo.security.services.UserDetailsServiceImpl;
+import com.example.demo.service.FriendGraphService;
 import com.example.demo.service.UserService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
+
+    private static final int USER_BATCH_SIZE = 500;
+    private static final int SEARCH_OVERFETCH = 3;
+
+    public static final String PROFILE_CACHE = "userProfile";
     
     private final UserRepository userRepository;
     private final FriendRequestRepository friendRequestRepository;
     private final FollowRepository followRepository;
     private final FriendshipRepository friendshipRepository;
     private final PasswordEncoder encoder;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final FriendGraphService friendGraphService;
+    private final TwoTierCacheManager cacheManager;
+
+    private final ApplicationEventPublisher events;
 
+    private TwoTierCache<User> profileCache;
 
-    @Autowired
-    private NotificationService notificationService;
+    @PostConstruct
+    void init() {
+        profileCache = cacheManager.create(PROFILE_CACHE, User.class);
+    }
 
     @Override
     @Transactional
@@ -62,45 +94,53 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User updateProfile(String userId, User updatedUser) {
-        User existingUser = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        
         // Only update fields that are provided in the request
+        Map<String, Object> fields = new HashMap<>();
         if (updatedUser.getFirstName() != null) {
-            existingUser.setFirstName(updatedUser.getFirstName());
+            fields.put("firstName", updatedUser.getFirstName());
         }
         if (updatedUser.getLastName() != null) {
-            existingUser.setLastName(updatedUser.getLastName());
+            fields.put("lastName", updatedUser.getLastName());
         }
         if (updatedUser.getBiography() != null) {
-            existingUser.setBiography(updatedUser.getBiography());
+            fields.put("biography", updatedUser.getBiography());
         }
         if (updatedUser.getProfessionalHeader() != null) {
-            existingUser.setProfessionalHeader(updatedUser.getProfessionalHeader());
+            fields.put("professionalHeader", updatedUser.getProfessionalHeader());
         }
         if (updatedUser.getCountry() != null) {
-            existingUser.setCountry(updatedUser.getCountry());
+            fields.put("country", updatedUser.getCountry());
         }
         if (updatedUser.getCity() != null) {
-            existingUser.setCity(updatedUser.getCity());
+            fields.put("city", updatedUser.getCity());
         }
         // if (updatedUser.getSkills() != null) {
-        //     existingUser.setSkills(updatedUser.getSkills());
+        //     fields.put("skills", updatedUser.getSkills());
         // }
         if (updatedUser.getProfilePicture() != null) {
-            existingUser.setProfilePicture(updatedUser.getProfilePicture());
+            fields.put("profilePicture", updatedUser.getProfilePicture());
         }
         if (updatedUser.getCoverPhoto() != null) {
-            existingUser.setCoverPhoto(updatedUser.getCoverPhoto());
+            fields.put("coverPhoto", updatedUser.getCoverPhoto());
         }
-        
-        return userRepository.save(existingUser);
+
+        User saved = fields.isEmpty()
+                ? userRepository.findById(userId).orElse(null)
+                : userRepository.updateFields(userId, fields);
+        if (saved == null) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        evictAfterCommit(saved.getUsername(), userId);
+        return saved;
     }
 
     @Override
     public User getUserProfile(String userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+        User user = profileCache.get(userId, () -> userRepository.findById(userId).orElse(null));
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        return user;
     }
 
     @Override
@@ -112,29 +152,29 @@ public class UserServiceImpl implements UserService {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        User userToFollow = userRepository.findById(userToFollowId)
-                .orElseThrow(() -> new ResourceNotFoundException("User to follow not found: " + userToFollowId));
+        if (!userRepository.existsById(userToFollowId)) {
+            throw new ResourceNotFoundException("User to follow not found: " + userToFollowId);
+        }
         
-        if (followRepository.existsByFollowerAndFollowing(user, userToFollow)) {
+        if (followRepository.existsByFollowerIdAndFollowingId(userId, userToFollowId)) {
             throw new BadRequestException("You are already following this user");
         }
         
-        Follow follow = new Follow();
-        follow.setFollower(user);
-        follow.setFollowing(userToFollow);
+        Follow follow = new Follow(userId, userToFollowId);
         follow.onCreate();
         
-        followRepository.save(follow);
-
-        // Send notification to the user being followed
-        notificationService.createNotification(
-            userToFollow.getId(),
-            user.getId(),
-            user.getUsername(), 
-            "FOLLOW",
-            null,
-            user.getUsername() + " started following you"
-        );
+        try {
+            followRepository.save(follow);
+        } catch (DuplicateKeyException e) {
+            throw new BadRequestException("You are already following this user");
+        }
+        // Counters are updated after commit, so concurrent follows of a popular account do not
+        // conflict on its document; UserCounterReconciliationJob repairs a lost increment
+        AfterCommit.run(() -> userRepository.incrementFollowCounts(userId, userToFollowId, 1));
+        evictProfilesAfterCommit(userId, userToFollowId);
+
+        // Notify the user being followed once the follow is committed
+        events.publishEvent(new UserFollowedEvent(user.getId(), user.getUsername(), userToFollowId));
     }
 
     @Override
@@ -144,35 +184,78 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Users cannot unfollow themselves");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        User userToUnfollow = userRepository.findById(userToUnfollowId)
-                .orElseThrow(() -> new ResourceNotFoundException("User to unfollow not found: " + userToUnfollowId));
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        if (!userRepository.existsById(userToUnfollowId)) {
+            throw new ResourceNotFoundException("User to unfollow not found: " + userToUnfollowId);
+        }
         
-        if (!followRepository.existsByFollowerAndFollowing(user, userToUnfollow)) {
+        if (followRepository.deleteByFollowerIdAndFollowingId(userId, userToUnfollowId) == 0) {
             throw new BadRequestException("You are not following this user");
         }
-        
-        followRepository.deleteByFollowerAndFollowing(user, userToUnfollow);
+        AfterCommit.run(() -> userRepository.incrementFollowCounts(userId, userToUnfollowId, -1));
+        evictProfilesAfterCommit(userId, userToUnfollowId);
     }
 
     @Override
-    public List<User> getFollowers(String userId) {
-        User user = userRepository.findById(userId)
+    public PaginatedResponse<User> getFollowers(String userId, String cursor, int limit) {
+        User counters = userRepository.findCountersById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        
-        return followRepository.findByFollowing(user).stream()
-                .map(Follow::getFollower)
-                .collect(Collectors.toList());
+        validateCursor(cursor);
+
+        // Fetch one extra edge to know whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Follow> edges = cursor == null
+                ? followRepository.findByFollowingIdOrderByIdDesc(userId, pageable)
+                : followRepository.findByFollowingIdAndIdLessThanOrderByIdDesc(userId, cursor, pageable);
+
+        return toUserPage(edges, Follow::getFollowerId, limit, counters.getFollowerCount());
     }
 
     @Override
-    public List<User> getFollowing(String userId) {
-        User user = userRepository.findById(userId)
+    public PaginatedResponse<User> getFollowing(String userId, String cursor, int limit) {
+        User counters = userRepository.findCountersById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        
-        return followRepository.findByFollower(user).stream()
-                .map(Follow::getFollowing)
+        validateCursor(cursor);
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Follow> edges = cursor == null
+                ? followRepository.findByFollowerIdOrderByIdDesc(userId, pageable)
+                : followRepository.findByFollowerIdAndIdLessThanOrderByIdDesc(userId, cursor, pageable);
+
+        return toUserPage(edges, Follow::getFollowingId, limit, counters.getFollowingCount());
+    }
+
+    private void validateCursor(String cursor) {
+        if (cursor != null && !ObjectId.isValid(cursor)) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private PaginatedResponse<User> toUserPage(List<Follow> edges, Function<Follow, String> otherUserId, int limit, long total) {
+        boolean hasMore = edges.size() > limit;
+        List<Follow> page = hasMore ? edges.subList(0, limit) : edges;
+        String nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+
+        List<User> users = findUserSummaries(page.stream()
+                .map(otherUserId)
+                .collect(Collectors.toList()));
+        return PaginatedResponse.cursor(users, limit, total, nextCursor);
+    }
+
+    /**
+     * Loads projected users for the given ids in batched $in queries, keeping the order of the ids
+     */
+    private List<User> findUserSummaries(List<String> ids) {
+        Map<String, User> usersById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += USER_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + USER_BATCH_SIZE, ids.size()));
+            userRepository.findSummariesByIdIn(batch).forEach(user -> usersById.put(user.getId(), user));
+        }
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -184,7 +267,7 @@ public class UserServiceImpl implements UserService {
         User receiver = userRepository.findById(receiverId)
                 .orElseThrow(() -> new ResourceNotFoundException("Receiver not found: " + receiverId));
         
-        if (friendshipRepository.existsByUsers(senderId, receiverId)) {
+        if (friendGraphService.areFriends(senderId, receiverId)) {
             throw new BadRequestException("Users are already friends");
         }
         
@@ -204,14 +287,8 @@ public class UserServiceImpl implements UserService {
         
         friendRequestRepository.save(request);
 
-        notificationService.createNotification(
-            receiver.getId(),
-            sender.getId(),
-            sender.getUsername(), 
-            "FRIEND_REQUEST",
-            request.getId(),
-            sender.getUsername() + " sent you a friend request"
-        );
+        events.publishEvent(new FriendRequestSentEvent(
+            request.getId(), sender.getId(), sender.getUsername(), receiver.getId()));
         
     }
 
@@ -239,17 +316,20 @@ public class UserServiceImpl implements UserService {
         request.onUpdate();
         
         // Remove follow relationships in both directions
-        // First check and remove if sender follows receiver
-        Optional<Follow> senderFollowsReceiver = followRepository.findByFollowerAndFollowing(sender, receiver);
-        senderFollowsReceiver.ifPresent(followRepository::delete);
-        
-        // Then check and remove if receiver follows sender
-        Optional<Follow> receiverFollowsSender = followRepository.findByFollowerAndFollowing(receiver, sender);
-        receiverFollowsSender.ifPresent(followRepository::delete);
+        if (followRepository.deleteByFollowerIdAndFollowingId(sender.getId(), receiver.getId()) > 0) {
+            AfterCommit.run(() -> userRepository.incrementFollowCounts(sender.getId(), receiver.getId(), -1));
+        }
+        if (followRepository.deleteByFollowerIdAndFollowingId(receiver.getId(), sender.getId()) > 0) {
+            AfterCommit.run(() -> userRepository.incrementFollowCounts(receiver.getId(), sender.getId(), -1));
+        }
         
         // Save the friendship and updated request
         friendshipRepository.save(friendship);
         friendRequestRepository.save(request);
+        if (friendGraphService.addFriendship(sender.getId(), receiver.getId())) {
+            AfterCommit.run(() -> userRepository.incrementFriendCounts(List.of(sender.getId(), receiver.getId()), 1));
+        }
+        evictProfilesAfterCommit(sender.getId(), receiver.getId());
     }
 
     @Override
@@ -269,40 +349,34 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<User> getFriends(String userId) {
-        // First get all friendship records
-        List<Friendship> friendships = friendshipRepository.findFriendshipsByUserId(userId);
-        
-        // Extract friend IDs
-        Set<String> friendIds = friendships.stream()
-                .map(friendship -> {
-                    String user1Id = friendship.getUser1().getId();
-                    String user2Id = friendship.getUser2().getId();
-                    return userId.equals(user1Id) ? user2Id : user1Id;
-                })
-                .collect(Collectors.toSet());
-        
-        // Fetch all users in one query
-        return friendIds.stream()
-                .map(id -> userRepository.findById(id)
-                        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + id)))
-                .collect(Collectors.toList());
+        // Sorted so that paging over the list is stable between requests
+        List<String> friendIds = new ArrayList<>(getFriendIds(userId));
+        Collections.sort(friendIds);
+        return findUserSummaries(friendIds);
+    }
+
+    @Override
+    public Set<String> getFriendIds(String userId) {
+        return friendGraphService.getFriendIds(userId);
     }
 
     @Override
     public List<User> getMutualFriends(String userId1, String userId2) {
         // Verify both users exist
-        userRepository.findById(userId1)
-                .orElseThrow(() -> new ResourceNotFoundException("First user not found: " + userId1));
-        userRepository.findById(userId2)
-                .orElseThrow(() -> new ResourceNotFoundException("Second user not found: " + userId2));
-
-        Set<String> user1FriendIds = getFriends(userId1).stream()
-                .map(User::getId)
-                .collect(Collectors.toSet());
-        
-        return getFriends(userId2).stream()
-                .filter(friend -> user1FriendIds.contains(friend.getId()))
-                .collect(Collectors.toList());
+        if (!userRepository.existsById(userId1)) {
+            throw new ResourceNotFoundException("First user not found: " + userId1);
+        }
+        if (!userRepository.existsById(userId2)) {
+            throw new ResourceNotFoundException("Second user not found: " + userId2);
+        }
+
+        // Intersect the id sets and only load the users that are in both
+        Set<String> mutualIds = new HashSet<>(getFriendIds(userId1));
+        mutualIds.retainAll(getFriendIds(userId2));
+
+        List<String> sortedIds = new ArrayList<>(mutualIds);
+        Collections.sort(sortedIds);
+        return findUserSummaries(sortedIds);
     }
 
     @Override
@@ -321,30 +395,6 @@ public class UserServiceImpl implements UserService {
         return friendRequestRepository.findByReceiverAndStatus(user, RequestStatus.PENDING);
     }
 
-    @Override
-    @Transactional
-    public void deleteProfile(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-
-        // Delete all friendships
-        List<Friendship> friendships = friendshipRepository.findFriendshipsByUserId(userId);
-        friendshipRepository.deleteAll(friendships);
-
-        // Delete all follows where user is follower or following
-        List<Follow> follows = followRepository.findByFollowerOrFollowing(user);
-        followRepository.deleteAll(follows);
-
-        // Delete ALL friend requests (sent and received) regardless of status
-        List<FriendRequest> allSentRequests = friendRequestRepository.findBySender(user);
-        List<FriendRequest> allReceivedRequests = friendRequestRepository.findByReceiver(user);
-        friendRequestRepository.deleteAll(allSentRequests);
-        friendRequestRepository.deleteAll(allReceivedRequests);
-
-        // Finally, delete the user
-        userRepository.delete(user);
-    }
-
     @Override
     @Transactional
     public void cancelFriendRequest(String senderId, String receiverId) {
@@ -363,23 +413,40 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<User> searchUsers(String query, int limit) {
-        if (query == null || query.trim().isEmpty()) {
+        String term = UserSearchKeys.normalize(query);
+        if (term.isEmpty()) {
             return List.of();
         }
-        
-        String searchTerm = query.trim();
-        
-        // Try the Spring Data method first
-        List<User> results = userRepository
-            .findByUsernameContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrderByUsernameAsc(
-                searchTerm, searchTerm, searchTerm);
-        
-        // If we get too many results, limit them
-        if (results.size() > limit) {
-            results = results.subList(0, limit);
+
+        // Exact matches first, then prefix matches. Both are index lookups bounded by the limit,
+        // the prefix scan over-fetches a little so exact and username hits can be ranked up.
+        Map<String, User> candidates = new LinkedHashMap<>();
+        userRepository.findSummariesBySearchKey(term, limit)
+                .forEach(user -> candidates.putIfAbsent(user.getId(), user));
+        userRepository.findSummariesBySearchKeyPrefix(term, limit * SEARCH_OVERFETCH)
+                .forEach(user -> candidates.putIfAbsent(user.getId(), user));
+
+        return candidates.values().stream()
+                .sorted(Comparator.<User>comparingInt(user -> searchRank(user, term))
+                        .thenComparing(user -> user.getUsername() != null ? user.getUsername().length() : Integer.MAX_VALUE)
+                        .thenComparing(User::getUsername, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private int searchRank(User user, String term) {
+        String username = UserSearchKeys.normalize(user.getUsername());
+        if (username.equals(term)) {
+            return 0;
         }
-        
-        return results;
+        List<String> keys = UserSearchKeys.of(user);
+        if (keys.contains(term)) {
+            return 1;
+        }
+        if (username.startsWith(term)) {
+            return 2;
+        }
+        return 3;
     }
 
     @Override
@@ -410,16 +477,19 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User completeProfile(String userId, ProfileCompletionDto profileData) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-
-        user.setProfessionalHeader(profileData.getProfessionalHeader());
-        // user.setSkills(profileData.getSkills());
-        user.setCountry(profileData.getCountry());
-        user.setCity(profileData.getCity());
-        user.setProfileComplete(true);
-
-        return userRepository.save(user);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("professionalHeader", profileData.getProfessionalHeader());
+        // fields.put("skills", profileData.getSkills());
+        fields.put("country", profileData.getCountry());
+        fields.put("city", profileData.getCity());
+        fields.put("isProfileComplete", true);
+
+        User saved = userRepository.updateFields(userId, fields);
+        if (saved == null) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        evictAfterCommit(saved.getUsername(), userId);
+        return saved;
     }
 
     @Override
@@ -429,6 +499,26 @@ public class UserServiceImpl implements UserService {
         return user.isProfileComplete();
     }
 
+    /**
+     * Evicts the cached profiles once the transaction has committed. Evicting earlier would let
+     * a concurrent read cache the uncommitted state again. Counter increments registered before
+     * run first, so the next read sees them too.
+     */
+    private void evictProfilesAfterCommit(String... userIds) {
+        AfterCommit.run(() -> {
+            for (String userId : userIds) {
+                profileCache.evict(userId);
+            }
+        });
+    }
+
+    private void evictAfterCommit(String username, String userId) {
+        AfterCommit.run(() -> {
+            userDetailsService.evictUser(username);
+            profileCache.evict(userId);
+        });
+    }
+
     @Override
     public User findById(String id) {
         // TODO Auto-generated method stub
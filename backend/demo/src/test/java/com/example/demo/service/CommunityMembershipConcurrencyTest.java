@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Community;
+import com.example.demo.model.User;
+import com.example.demo.repository.CommunityMembershipRepository;
+import com.example.demo.repository.CommunityRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the membership operations from many threads and checks that no join is lost
+ * and the counts stay in step with the memberships.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CommunityMembershipConcurrencyTest {
+
+    private static final int USERS = 60;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private CommunityService communityService;
+
+    @Autowired
+    private CommunityRepository communityRepository;
+
+    @Autowired
+    private CommunityMembershipRepository membershipRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Community community;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Community newCommunity = new Community();
+        newCommunity.setName("stress-" + run);
+        community = communityRepository.save(newCommunity);
+
+        users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("st" + run + i);
+            user.setEmail("st" + run + i + "@example.com");
+            user.setPassword("password");
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        membershipRepository.deleteByCommunityId(community.getId());
+        communityRepository.deleteById(community.getId());
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void parallelJoinsLoseNoMembers() throws Exception {
+        List<Boolean> results = runConcurrently(users.stream()
+                .<Callable<Boolean>>map(user -> () -> communityService.addMember(community.getId(), user.getId()))
+                .toList());
+
+        assertThat(results).containsOnly(true);
+        assertCounts(USERS, 0);
+        assertThat(communityService.getCommunityMembers(community.getId(), null, USERS).getContent())
+                .containsExactlyInAnyOrderElementsOf(users.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void repeatedJoinsOfOneUserCountOnce() throws Exception {
+        String userId = users.get(0).getId();
+        List<Callable<Boolean>> joins = new ArrayList<>();
+        for (int i = 0; i < THREADS * 2; i++) {
+            joins.add(() -> communityService.addMember(community.getId(), userId));
+        }
+
+        List<Boolean> results = runConcurrently(joins);
+
+        assertThat(results.stream().filter(Boolean::booleanValue)).hasSize(1);
+        assertCounts(1, 0);
+    }
+
+    @Test
+    void mixedJoinsLeavesAndPromotionsKeepCountsInStep() throws Exception {
+        List<Callable<Boolean>> operations = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String userId = users.get(i).getId();
+            operations.add(() -> communityService.addMember(community.getId(), userId));
+            switch (i % 3) {
+                case 0 -> operations.add(() -> communityService.removeMember(community.getId(), userId));
+                case 1 -> operations.add(() -> communityService.addAdmin(community.getId(), userId));
+                default -> { }
+            }
+        }
+
+        runConcurrently(operations);
+
+        long members = communityService.getCommunityMembers(community.getId(), null, USERS).getContent().size();
+        long admins = communityService.getCommunityAdmins(community.getId()).size();
+        assertCounts(members, admins);
+        assertThat(admins).isEqualTo(USERS / 3);
+    }
+
+    private void assertCounts(long members, long admins) {
+        Community stored = communityRepository.findById(community.getId()).orElseThrow();
+        assertThat(stored.getMemberCount()).isEqualTo(members);
+        assertThat(stored.getAdminCount()).isEqualTo(admins);
+    }
+
+    /**
+     * Runs the tasks from a fixed pool, released together so they overlap as much as possible
+     */
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -3,6 +3,7 @@ import { useParams } from 'react-router-dom';
 import CommentSection from '../components/comments/CommentSection';
 import LikeButton from '../components/likes/LikeButton';
 import LikesList from '../components/likes/LikesList';
+import { postStatsService } from '../services/postStatsService';
 
 export const mockPosts = [
   {
@@ -60,11 +61,17 @@ const PostFeed = () => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [likesModalState, setLikesModalState] = useState({});
+  const [stats, setStats] = useState({});
 
   useEffect(() => {
     const fetchPost = async () => {
       try {
         setLoading(true);
+        // One request for the counters of every post on the page; without them each post
+        // falls back to fetching its own counts
+        const counts = await postStatsService.getStats(mockPosts.map(p => String(p.id)))
+          .catch(() => ({}));
+        setStats(counts);
         setPost(mockPosts);
         setLoading(false);
       } catch (err) {
@@ -127,7 +134,7 @@ const PostFeed = () => {
             <div className="prose max-w-none">{post.content}</div>
             
             <div className="mt-6 flex items-center space-x-4">
-              <LikeButton postId={post.id} />
+              <LikeButton postId={post.id} initialCount={stats[post.id]?.likeCount} />
               
               <button
                 onClick={() => handleShowLikes(post.id)}
@@ -146,7 +153,7 @@ const PostFeed = () => {
           </div>
           
           <div id={`comments-${post.id}`} className="border-t border-gray-200 p-6">
-            <CommentSection postId={post.id} />
+            <CommentSection postId={post.id} initialCount={stats[post.id]?.commentCount} />
           </div>
         </div>
         
@@ -2,7 +2,7 @@ import { useState } from 'react';
 import CommentForm from './CommentForm';
 import { formatDistanceToNow } from 'date-fns';
 
-const CommentItem = ({ comment, onReply, onEdit, onDelete }) => {
+const CommentItem = ({ comment, onReply, onEdit, onDelete, onLoadMoreReplies }) => {
   const [isReplying, setIsReplying] = useState(false);
   const [isEditing, setIsEditing] = useState(false);
   const [showReplies, setShowReplies] = useState(true);
@@ -21,6 +21,8 @@ const handleEdit = (content) => {
 // ...existing code...
 // ...existing code...
 
+  const replyCount = Math.max(comment.replyCount || 0, comment.replies?.length || 0);
+
   const handleDelete = () => {
     if (window.confirm('Are you sure you want to delete this comment?')) {
       onDelete(comment.id);
@@ -107,20 +109,30 @@ const handleEdit = (content) => {
             onClick={() => setShowReplies(!showReplies)}
             className="text-sm text-gray-600 hover:text-gray-800 mb-2"
           >
-            {showReplies ? 'Hide' : 'Show'} {comment.replies.length} {comment.replies.length === 1 ? 'reply' : 'replies'}
+            {showReplies ? 'Hide' : 'Show'} {replyCount} {replyCount === 1 ? 'reply' : 'replies'}
           </button>
 
           {showReplies && (
             <div className="space-y-2">
               {comment.replies.map(reply => (
-                <CommentItem
-                  key={reply.id}
-                  comment={reply}
-                  onReply={onReply}
-                  onEdit={onEdit}
-                  onDelete={onDelete}
-                />
+                // Replies arrive flat in thread order; indent them by their depth below this comment
+                <div key={reply.id} style={{ marginLeft: `${Math.max(reply.depth - comment.depth - 1, 0) * 1.5}rem` }}>
+                  <CommentItem
+                    comment={reply}
+                    onReply={onReply}
+                    onEdit={onEdit}
+                    onDelete={onDelete}
+                  />
+                </div>
               ))}
+              {comment.repliesCursor && onLoadMoreReplies && (
+                <button
+                  onClick={() => onLoadMoreReplies(comment.id)}
+                  className="text-sm text-blue-600 hover:text-blue-800"
+                >
+                  Show more replies
+                </button>
+              )}
             </div>
           )}
         </div>
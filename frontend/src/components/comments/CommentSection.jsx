@@ -4,7 +4,7 @@ import CommentItem from './CommentItem';
 import CommentForm from './CommentForm';
 import { useAuth } from '../../context/AuthContext'; // adjust path as needed
 
-const CommentSection = ({ postId }) => {
+const CommentSection = ({ postId, initialCount }) => {
   const [comments, setComments] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
@@ -46,6 +46,10 @@ const { user: currentUser } = useAuth();
     }
   };
   const fetchCommentCount = async () => {
+    if (initialCount !== undefined) {
+      setCommentCount(initialCount);
+      return;
+    }
     try {
       const count = await commentService.getCommentCount(postId);
       setCommentCount(count);
@@ -56,14 +60,18 @@ const { user: currentUser } = useAuth();
 
   useEffect(() => {
     fetchComments();
-    fetchCommentCount();
   }, [postId, page]);
+
+  useEffect(() => {
+    fetchCommentCount();
+  }, [postId, initialCount]);
  
 
   const handleAddComment = async (content) => {
     try {
       const newComment = await commentService.addComment(postId, content);
       setComments(prev => [newComment, ...prev]);
+      setCommentCount(prev => prev + 1);
     } catch (err) {
       setError('Failed to add comment');
     }
@@ -77,18 +85,40 @@ const handleReply = async (parentCommentId, content) => {
       content
     };
     const newReply = await commentService.replyToComment(parentCommentId, replyDTO);
+    setCommentCount(prev => prev + 1);
 
 
-    // Update the comment tree with the new reply
-    setComments(prev => 
+    // Replies of a thread are kept flat in display order, so the new reply goes after the
+    // last loaded reply below its parent
+    setComments(prev =>
       prev.map(comment => {
         if (comment.id === parentCommentId) {
           return {
             ...comment,
-            replies: [...(comment.replies || []), newReply]
+            replies: [...(comment.replies || []), newReply],
+            replyCount: (comment.replyCount || 0) + 1
           };
         }
-        return comment;
+        const replies = comment.replies || [];
+        const parentIndex = replies.findIndex(r => r.id === parentCommentId);
+        if (parentIndex === -1) {
+          return comment;
+        }
+        const parent = replies[parentIndex];
+        let insertAt = parentIndex + 1;
+        while (insertAt < replies.length && replies[insertAt].depth > parent.depth) {
+          insertAt++;
+        }
+        return {
+          ...comment,
+          replies: [
+            ...replies.slice(0, parentIndex),
+            { ...parent, replyCount: (parent.replyCount || 0) + 1 },
+            ...replies.slice(parentIndex + 1, insertAt),
+            newReply,
+            ...replies.slice(insertAt)
+          ]
+        };
       })
     );
   } catch (err) {
@@ -183,6 +213,30 @@ const handleEdit = async (commentId, content) => {
     });
   };
 
+  // Appends the next page of replies to a top-level comment
+  const handleLoadMoreReplies = async (commentId) => {
+    const comment = comments.find(c => c.id === commentId);
+    if (!comment || !comment.repliesCursor) return;
+
+    try {
+      const data = await commentService.getReplies(commentId, comment.repliesCursor);
+      setComments(prev =>
+        prev.map(c => {
+          if (c.id !== commentId) return c;
+          // Replies added locally may come back in a later page
+          const known = new Set((c.replies || []).map(r => r.id));
+          return {
+            ...c,
+            replies: [...(c.replies || []), ...data.content.filter(r => !known.has(r.id))],
+            repliesCursor: data.nextCursor
+          };
+        })
+      );
+    } catch (err) {
+      setError('Failed to load replies');
+    }
+  };
+
   const loadMore = () => {
     if (!loading && hasMore) {
       setPage(prev => prev + 1);
@@ -219,6 +273,7 @@ const handleEdit = async (commentId, content) => {
                 onReply={handleReply}
                 onEdit={handleEdit}
                 onDelete={handleDelete}
+                onLoadMoreReplies={handleLoadMoreReplies}
               /> ))}
               </div>
               {loading && (
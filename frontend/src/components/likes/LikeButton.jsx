@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { likeService } from '../../services/likeService';
 
-const LikeButton = ({ postId }) => {
+const LikeButton = ({ postId, initialCount }) => {
   const [liked, setLiked] = useState(false);
   const [likeCount, setLikeCount] = useState(0);
   const [loading, setLoading] = useState(true);
@@ -9,9 +9,10 @@ const LikeButton = ({ postId }) => {
   useEffect(() => {
     const fetchLikeStatus = async () => {
       try {
+        // The feed passes the count from its batched stats request
         const [hasLikedRes, countRes] = await Promise.all([
           likeService.hasLiked(postId),
-          likeService.getLikeCount(postId)
+          initialCount ?? likeService.getLikeCount(postId)
         ]);
         
         setLiked(hasLikedRes);
@@ -24,7 +25,7 @@ const LikeButton = ({ postId }) => {
     };
 
     fetchLikeStatus();
-  }, [postId]);
+  }, [postId, initialCount]);
 
   const handleLikeClick = async () => {
     if (loading) return;
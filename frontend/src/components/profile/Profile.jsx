@@ -41,12 +41,7 @@ const Profile = () => {
       if (!userId) {
         throw new Error('No user ID provided');
       }      console.log('Fetching profile for userId:', userId);
-      const [profileResponse, followingResponse] = await Promise.all([
-        axios.get(`/api/users/${userId}/profile`),
-        currentUser && userId !== currentUser.id 
-          ? axios.get(`/api/users/${currentUser.id}/following`)
-          : Promise.resolve({ data: [] })
-      ]);
+      const profileResponse = await axios.get(`/api/users/${userId}/profile`);
       
       if (!profileResponse.data) {
         throw new Error('No data received from server');
@@ -63,17 +58,9 @@ const Profile = () => {
 
       setProfileData(transformedData);
       
-      // Check if the current user is following this profile
-      if (currentUser && userId !== currentUser.id && followingResponse.data) {
-        const followingData = Array.isArray(followingResponse.data) 
-          ? followingResponse.data 
-          : followingResponse.data.content || [];
-          
-        const isFollowingUser = followingData.some(user => 
-          user.id === userId || user._id === userId
-        );
-        console.log('Is current user following this profile:', isFollowingUser);
-        setIsFollowing(isFollowingUser);
+      // The profile response says whether the current user follows this profile
+      if (currentUser && userId !== currentUser.id) {
+        setIsFollowing(Boolean(userData.following));
       }
 
       // Check both friend request status and friendship status
@@ -146,15 +133,9 @@ const Profile = () => {
         setIsFollowing(false);
       }
       
-      // Fetch the updated following list to ensure UI is in sync with backend state
-      const followingResponse = await axios.get(`/api/users/${currentUser.id}/following`);
-      const followingData = Array.isArray(followingResponse.data) 
-        ? followingResponse.data 
-        : followingResponse.data.content || [];
-        
-      const isFollowingUser = followingData.some(user => 
-        user.id === userId || user._id === userId
-      );
+      // Fetch the updated profile to ensure UI is in sync with backend state
+      const profileResponse = await axios.get(`/api/users/${userId}/profile`);
+      const isFollowingUser = Boolean(profileResponse.data?.following);
       
       // Set the state based on the latest data from the server
       if (isFollowingUser !== isFollowing) {
@@ -21,7 +21,6 @@ export const NotificationProvider = ({ children }) => {
         const data = await notificationService.getUnreadNotifications();
         console.log('Fetched unread notifications:', data);
         setNotifications(data);
-        setUnreadCount(data.length);
         setLoading(false);
       } catch (error) {
         console.error('Error fetching notifications:', error);
@@ -30,15 +29,24 @@ export const NotificationProvider = ({ children }) => {
     };
 
     fetchUnreadNotifications();
+    notificationService.getUnreadCount()
+      .then(setUnreadCount)
+      .catch(() => {});
 
     // Set up WebSocket subscription for real-time notifications
+    // Grouped notifications ("Alice and 12 others ...") arrive again with the same id when they grow
     websocketService.subscribe('/user/queue/notifications', (notification) => {
-      setNotifications(prev => [notification, ...prev]);
-      setUnreadCount(prev => prev + 1);
+      setNotifications(prev => [notification, ...prev.filter(n => n.id !== notification.id)]);
+    });
+
+    // The server pushes the new unread count whenever it changes
+    websocketService.subscribe('/user/queue/notifications/count', (message) => {
+      setUnreadCount(message.count);
     });
 
     return () => {
       websocketService.unsubscribe('/user/queue/notifications');
+      websocketService.unsubscribe('/user/queue/notifications/count');
     };
   }, []);
 
@@ -51,8 +59,6 @@ export const NotificationProvider = ({ children }) => {
           notification.id === notificationId ? { ...notification, read: true } : notification
         )
       );
-      
-      setUnreadCount(prev => Math.max(0, prev - 1));
     } catch (error) {
       console.error('Error marking notification as read:', error);
     }
@@ -65,8 +71,6 @@ export const NotificationProvider = ({ children }) => {
       setNotifications(prev => 
         prev.map(notification => ({ ...notification, read: true }))
       );
-      
-      setUnreadCount(0);
     } catch (error) {
       console.error('Error marking all notifications as read:', error);
     }
@@ -278,12 +278,8 @@ const Communities = () => {
     try {
       await CommunityService.addMember(communityId, user.id);
       const updatedCommunities = discoverCommunities.map(community => {
-        if (community.id === communityId) {
-          const updatedMemberIds = community.memberIds ? [...community.memberIds] : [];
-          if (!updatedMemberIds.includes(user.id)) {
-            updatedMemberIds.push(user.id);
-          }
-          return { ...community, memberIds: updatedMemberIds };
+        if (community.id === communityId && !community.member) {
+          return { ...community, member: true, memberCount: (community.memberCount || 0) + 1 };
         }
         return community;
       });
@@ -299,10 +295,12 @@ const Communities = () => {
     try {
       await CommunityService.removeMember(communityId, user.id);
       const updatedCommunities = myCommunities.map(community => {
-        if (community.id === communityId && community.memberIds) {
+        if (community.id === communityId && community.member) {
           return { 
             ...community, 
-            memberIds: community.memberIds.filter(id => id !== user.id) 
+            member: false,
+            admin: false,
+            memberCount: Math.max((community.memberCount || 0) - 1, 0)
           };
         }
         return community;
@@ -319,12 +317,12 @@ const Communities = () => {
 
   const isUserMember = (community) => {
     if (!user || !community) return false;
-    return Array.isArray(community.memberIds) && community.memberIds.includes(user.id);
+    return Boolean(community.member);
   };
 
   const isUserAdmin = (community) => {
     if (!user || !community) return false;
-    return Array.isArray(community.adminIds) && community.adminIds.includes(user.id);
+    return Boolean(community.admin);
   };
 
   const categories = ['Technology', 'Business', 'Education', 'Health', 'Entertainment', 'Social', 'Other'];
@@ -540,7 +538,7 @@ const Communities = () => {
                         >
                           <GroupIcon fontSize="inherit" sx={{ mr: 0.5 }} />
                           <Typography variant="caption" fontWeight={500}>
-                            {community.memberIds ? community.memberIds.length : 0} members
+                            {community.memberCount || 0} members
                           </Typography>
                         </Box>
                       </Box>
@@ -584,7 +582,7 @@ const Communities = () => {
                           size="small"
                           color="error"
                           onClick={() => handleLeave(community.id)}
-                          disabled={isUserAdmin(community) && community.adminIds?.length === 1}
+                          disabled={isUserAdmin(community) && community.adminCount === 1}
                           sx={{ 
                             fontWeight: 'medium', 
                             fontSize: '0.75rem',
@@ -367,13 +367,9 @@ const CommunityFeed = () => {
       setCommunity(communityData);
       
       if (user) {
-        const memberIds = communityData.memberIds || [];
-        const adminIds = communityData.adminIds || [];
-        console.log('Member IDs:', memberIds);
-        console.log('Admin IDs:', adminIds);
         console.log('Current user ID:', user.id);
-        setIsMember(memberIds.includes(user.id));
-        setIsAdmin(adminIds.includes(user.id));
+        setIsMember(Boolean(communityData.member));
+        setIsAdmin(Boolean(communityData.admin));
       }
 
       try {
@@ -383,15 +379,13 @@ const CommunityFeed = () => {
           setMembers(membersResponse.data);
         } else if (membersResponse.data && Array.isArray(membersResponse.data.content)) {
           setMembers(membersResponse.data.content);
-        } else if (communityData.memberIds && Array.isArray(communityData.memberIds)) {
-          setMembers(communityData.memberIds);
         } else {
           console.log('No valid members data found');
           setMembers([]);
         }
       } catch (membersError) {
         console.error('Error fetching community members:', membersError);
-        setMembers(communityData.memberIds || []);
+        setMembers([]);
       }
 
       try {
@@ -401,15 +395,13 @@ const CommunityFeed = () => {
           setAdmins(adminsResponse.data);
         } else if (adminsResponse.data && Array.isArray(adminsResponse.data.content)) {
           setAdmins(adminsResponse.data.content);
-        } else if (communityData.adminIds && Array.isArray(communityData.adminIds)) {
-          setAdmins(communityData.adminIds);
         } else {
           console.log('No valid admins data found');
           setAdmins([]);
         }
       } catch (adminsError) {
         console.error('Error fetching community admins:', adminsError);
-        setAdmins(communityData.adminIds || []);
+        setAdmins([]);
       }
     } catch (error) {
       console.error('Error fetching community details:', error);
@@ -650,7 +642,7 @@ const CommunityFeed = () => {
                 }}>
                   <GroupIcon sx={{ mr: 0.8, fontSize: 18 }} />
                   <Typography variant="body2" sx={{ fontWeight: 600 }}>
-                    {members ? members.length : 0} members
+                    {community.memberCount || 0} members
                   </Typography>
                 </Box>
               </Box>
@@ -755,7 +747,7 @@ const CommunityFeed = () => {
             <List sx={{ p: 0 }}>
               {[
                 { icon: CalendarTodayIcon, label: 'Created:', value: formatDate(community.createdAt) },
-                { icon: GroupIcon, label: 'Members:', value: members ? members.length : 0 },
+                { icon: GroupIcon, label: 'Members:', value: community.memberCount || 0 },
                 { 
                   icon: community.isPublic ? PublicIcon : LockIcon, 
                   label: 'Visibility:', 
@@ -869,7 +861,7 @@ const CommunityFeed = () => {
                       />
                     </StyledListItem>
                   ))}
-                  {members.length > 5 && (
+                  {community.memberCount > 5 && (
                     <Box sx={{ mt: 2, textAlign: 'center' }}>
                       <Typography 
                         variant="body2"
@@ -888,7 +880,7 @@ const CommunityFeed = () => {
                           }
                         }}
                       >
-                        +{members.length - 5} more members
+                        +{community.memberCount - 5} more members
                       </Typography>
                     </Box>
                   )}
@@ -23,6 +23,9 @@ const Connections = () => {
   const [searchResults, setSearchResults] = useState([]);
   const [isSearching, setIsSearching] = useState(false);
   const [actionLoading, setActionLoading] = useState(null);
+  // Followers and following come in cursor pages; nextCursor is null on the last page
+  const [pages, setPages] = useState({ followers: {}, following: {} });
+  const [loadingMore, setLoadingMore] = useState(false);
 
   // Use current user's ID if no userId is provided in URL
   const targetUserId = userId || currentUser?.id;
@@ -74,6 +77,10 @@ const Connections = () => {
       setFollowers(transformData(followersRes));
       setFollowing(transformData(followingRes));
       setFriends(transformData(friendsRes));
+      setPages({
+        followers: pageOf(followersRes),
+        following: pageOf(followingRes)
+      });
 
       // Fetch friend requests if viewing own profile
       if (targetUserId === currentUser?.id) {
@@ -110,6 +117,37 @@ const Connections = () => {
     }
   };
 
+  const pageOf = (response) => ({
+    nextCursor: response?.data?.nextCursor || null,
+    total: response?.data?.totalElements
+  });
+
+  // Appends the next page of followers or following
+  const handleLoadMore = async (type) => {
+    const cursor = pages[type]?.nextCursor;
+    if (!cursor || loadingMore) return;
+
+    try {
+      setLoadingMore(true);
+      const response = await axios.get(`/api/users/${targetUserId}/${type}`, {
+        params: { cursor }
+      });
+      const users = (response.data?.content || []).map(transformUser).filter(Boolean);
+      const setList = type === 'followers' ? setFollowers : setFollowing;
+      setList(prev => {
+        // Someone followed in the meantime may come back again
+        const known = new Set(prev.map(u => u.id));
+        return [...prev, ...users.filter(u => !known.has(u.id))];
+      });
+      setPages(prev => ({ ...prev, [type]: pageOf(response) }));
+    } catch (err) {
+      console.error(`Error loading more ${type}:`, err);
+      setError(`Failed to load more ${type}`);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleAcceptRequest = async (requestId) => {
     if (!requestId) {
       console.error('No request ID provided');
@@ -455,8 +493,8 @@ const Connections = () => {
               {currentUser?.username || 'Connections'}
             </Typography>
             <Typography variant="body2" className="text-gray-500">
-              {activeTab === 'followers' ? `${followers.length} followers` : 
-               activeTab === 'following' ? `${following.length} following` : 
+              {activeTab === 'followers' ? `${pages.followers.total ?? followers.length} followers` : 
+               activeTab === 'following' ? `${pages.following.total ?? following.length} following` : 
                `${friends.length} friends`}
             </Typography>
           </div>
@@ -528,6 +566,21 @@ const Connections = () => {
           activeTab === 'following' ? following :
           friends
         )}
+
+        {!searchQuery && !loading && (activeTab === 'followers' || activeTab === 'following') &&
+          pages[activeTab]?.nextCursor && (
+          <div className="text-center py-2">
+            <Button
+              onClick={() => handleLoadMore(activeTab)}
+              disabled={loadingMore}
+              variant="text"
+              size="small"
+              sx={{ color: '#002B5B' }}
+            >
+              {loadingMore ? <CircularProgress size={20} /> : 'Load more'}
+            </Button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -234,8 +234,6 @@ const CreateCommunity = () => {
       const communityData = {
         ...formData,
         createdBy: user.id,
-        memberIds: [user.id],
-        adminIds: [user.id],
         createdAt: new Date().toISOString()
       };
       
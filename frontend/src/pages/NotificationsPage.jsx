@@ -64,6 +64,13 @@ const renderIcon = (type) => {
   }
 };
 
+// Grouped notifications carry how many people acted, e.g. "Alice and 12 others liked your post"
+const othersSuffix = (notification) => {
+  const others = (notification.actorCount || 1) - 1;
+  if (others <= 0) return '';
+  return ` and ${others} ${others === 1 ? 'other' : 'others'}`;
+};
+
 const NotificationsPage = () => {
   const [notifications, setNotifications] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -184,22 +191,22 @@ const NotificationsPage = () => {
                 <div className="text-base font-semibold text-gray-900">
                   {notification.type === 'LIKE' && (
                     <>
-                      <strong>{notification.actorName || notification.senderName}</strong> liked your post
+                      <strong>{notification.actorName || notification.senderName}</strong>{othersSuffix(notification)} liked your post
                     </>
                   )}
                   {notification.type === 'COMMENT' && (
                     <>
-                      <strong>{notification.actorName || notification.senderName}</strong> commented on your post
+                      <strong>{notification.actorName || notification.senderName}</strong>{othersSuffix(notification)} commented on your post
                     </>
                   )}
                   {notification.type === 'REPLY' && (
                     <>
-                      <strong>{notification.actorName || notification.senderName}</strong> replied to your comment
+                      <strong>{notification.actorName || notification.senderName}</strong>{othersSuffix(notification)} replied to your comment
                     </>
                   )}
                   {notification.type === 'FOLLOW' && (
                     <>
-                      <strong>{notification.actorName || notification.senderName}</strong> started following you
+                      <strong>{notification.actorName || notification.senderName}</strong>{othersSuffix(notification)} started following you
                     </>
                   )}
                   {notification.type === 'COMMUNITY_JOIN' && (
@@ -12,6 +12,19 @@ export const commentService = {
     }
   },
 
+  // Get the next page of replies to a comment
+  getReplies: async (commentId, cursor, limit = 20) => {
+    try {
+      const params = new URLSearchParams({ limit });
+      if (cursor) params.append('cursor', cursor);
+      const response = await api.get(`/api/comments/${commentId}/replies?${params}`);
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching replies:', error);
+      throw error;
+    }
+  },
+
   // Add a new comment to a post
   addComment: async (postId, content) => {
     const commentDTO = {
@@ -27,6 +27,17 @@ getNotificationHistory: async (page = 0, size = 10) => {
   }
 },
 
+  // Get the unread count; later changes are pushed on /user/queue/notifications/count
+  getUnreadCount: async () => {
+    try {
+      const response = await api.get('/api/notifications/unread/count');
+      return response.data.count;
+    } catch (error) {
+      console.error('Error fetching unread count:', error);
+      throw error;
+    }
+  },
+
   // Mark notification as read
   markAsRead: async (notificationId) => {
     try {
@@ -0,0 +1,16 @@
+import api from '../api/axios';
+
+export const postStatsService = {
+  // Get like and comment counts for several posts in one request, keyed by post id
+  getStats: async (postIds) => {
+    if (!postIds.length) return {};
+    try {
+      const params = new URLSearchParams({ postIds: postIds.join(',') });
+      const response = await api.get(`/api/post-stats?${params}`);
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching post stats:', error);
+      throw error;
+    }
+  }
+};